@@ -20,6 +20,7 @@ import javax.validation.constraints.Size;
 import lab.s2jh.core.annotation.MetaData;
 import lab.s2jh.core.entity.BaseEntity;
 import lab.s2jh.core.entity.annotation.EntityAutoCode;
+import lab.s2jh.core.entity.annotation.FullTextIndexed;
 import lab.s2jh.core.entity.annotation.SkipParamBind;
 import lab.s2jh.core.web.json.DateJsonSerializer;
 import lab.s2jh.core.web.json.DateTimeJsonSerializer;
@@ -131,6 +132,7 @@ public class User extends BaseEntity<Long> {
 
     @Size(min = 3, max = 30)
     @Column(length = 128, unique = true, nullable = false, updatable = false, name = "user_id")
+    @FullTextIndexed
     public String getSigninid() {
         return signinid;
     }
@@ -149,6 +151,7 @@ public class User extends BaseEntity<Long> {
     }
 
     @Column(length = 64)
+    @FullTextIndexed
     public String getNick() {
         return nick;
     }
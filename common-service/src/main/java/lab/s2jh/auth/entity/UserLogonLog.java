@@ -10,7 +10,7 @@ import javax.persistence.TemporalType;
 import javax.persistence.Transient;
 
 import lab.s2jh.core.annotation.MetaData;
-import lab.s2jh.core.entity.BaseNativeEntity;
+import lab.s2jh.core.entity.BasePooledEntity;
 import lab.s2jh.core.entity.annotation.EntityAutoCode;
 import lab.s2jh.core.util.DateUtils;
 import lab.s2jh.core.web.json.DateTimeJsonSerializer;
@@ -24,7 +24,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 @Table(name = "tbl_AUTH_LOGON_LOG")
 @Cache(usage = CacheConcurrencyStrategy.NONE)
 @MetaData(value = "用户登录登出历史记录")
-public class UserLogonLog extends BaseNativeEntity {
+public class UserLogonLog extends BasePooledEntity {
 
     private Boolean authenticationFailure = false;
 
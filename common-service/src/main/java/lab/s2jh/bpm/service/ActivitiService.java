@@ -5,12 +5,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
 import lab.s2jh.bpm.BpmTrackable;
 import lab.s2jh.core.security.AuthContextHolder;
+import lab.s2jh.core.service.SingleFlightExecutor;
 
 import org.activiti.bpmn.model.BpmnModel;
 import org.activiti.engine.FormService;
@@ -29,6 +31,7 @@ import org.activiti.engine.impl.pvm.PvmTransition;
 import org.activiti.engine.impl.pvm.process.ActivityImpl;
 import org.activiti.engine.impl.pvm.process.ProcessDefinitionImpl;
 import org.activiti.engine.impl.pvm.process.TransitionImpl;
+import org.activiti.engine.repository.ProcessDefinition;
 import org.activiti.engine.runtime.ProcessInstance;
 import org.activiti.engine.task.Task;
 import org.activiti.spring.ProcessEngineFactoryBean;
@@ -78,6 +81,9 @@ public class ActivitiService {
     @Autowired(required = false)
     ProcessEngineFactoryBean processEngine;
 
+    @Autowired
+    private SingleFlightExecutor singleFlightExecutor;
+
     /**
      * 基于业务主键构建流程实例运行图
      * @param bizKey
@@ -217,6 +223,69 @@ public class ActivitiService {
         }
     }
 
+    /**
+     * 查询用户待办任务列表，包括已签收任务和等待签收任务
+     * 相同用户的并发请求（如多个页面同时刷新待办列表）合并为一次查询组装
+     * @param userpin 用户登录账号
+     * @return
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findUserTasks(final String userpin) {
+        return singleFlightExecutor.execute("ActivitiService.findUserTasks:" + userpin,
+                new Callable<List<Map<String, Object>>>() {
+                    @Override
+                    public List<Map<String, Object>> call() {
+                        List<Map<String, Object>> tasks = new ArrayList<Map<String, Object>>();
+
+                        // 已经签收的任务
+                        List<Task> todoList = taskService.createTaskQuery().taskAssignee(userpin).active()
+                                .orderByTaskCreateTime().desc().list();
+                        for (Task task : todoList) {
+                            Map<String, Object> singleTask = packageTaskInfo(task);
+                            singleTask.put("candidate", false);
+                            tasks.add(singleTask);
+                        }
+
+                        // 等待签收的任务
+                        List<Task> toClaimList = taskService.createTaskQuery().taskCandidateUser(userpin).active()
+                                .orderByTaskCreateTime().desc().list();
+                        for (Task task : toClaimList) {
+                            Map<String, Object> singleTask = packageTaskInfo(task);
+                            singleTask.put("candidate", true);
+                            tasks.add(singleTask);
+                        }
+                        return tasks;
+                    }
+                });
+    }
+
+    private Map<String, Object> packageTaskInfo(Task task) {
+
+        String processDefinitionId = task.getProcessDefinitionId();
+        ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionId(processDefinitionId).singleResult();
+        ProcessInstance processInstance = runtimeService.createProcessInstanceQuery()
+                .processInstanceId(task.getProcessInstanceId()).singleResult();
+        Map<String, Object> singleTask = new HashMap<String, Object>();
+        singleTask.put("id", task.getId());
+        singleTask.put("name", task.getName());
+        singleTask.put("createTime", task.getCreateTime());
+        singleTask.put("pdname", processDefinition.getName());
+        singleTask.put("pdversion", processDefinition.getVersion());
+        singleTask.put("pid", task.getProcessInstanceId());
+        singleTask.put("bizKey", processInstance.getBusinessKey());
+
+        try {
+            Map<String, Object> variables = taskService.getVariables(task.getId());
+            singleTask.put("initiator", variables.get(BPM_INITIATOR_VAR_NAME));
+        } catch (Exception e) {
+            //处理避免由于实体对象查询异常导致页面显示错误页面
+            logger.error(e.getMessage(), e);
+        }
+
+        return singleTask;
+    }
+
     /**
      * 查询业务对象当前活动任务名称
      * @param bizKey 启动流程的业务主键
@@ -1,6 +1,5 @@
 package lab.s2jh.bpm.web.action;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,8 +27,6 @@ import org.activiti.engine.RuntimeService;
 import org.activiti.engine.TaskService;
 import org.activiti.engine.impl.form.TaskFormDataImpl;
 import org.activiti.engine.impl.pvm.process.ActivityImpl;
-import org.activiti.engine.repository.ProcessDefinition;
-import org.activiti.engine.runtime.ProcessInstance;
 import org.activiti.engine.task.Task;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -79,57 +76,11 @@ public class BpmTaskController extends SimpleController {
     @Autowired
     private DynamicConfigService dynamicConfigService;
 
-    private Map<String, Object> packageTaskInfo(Task task) {
-
-        String processDefinitionId = task.getProcessDefinitionId();
-        ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
-                .processDefinitionId(processDefinitionId).singleResult();
-        ProcessInstance processInstance = runtimeService.createProcessInstanceQuery()
-                .processInstanceId(task.getProcessInstanceId()).singleResult();
-        Map<String, Object> singleTask = new HashMap<String, Object>();
-        singleTask.put("id", task.getId());
-        singleTask.put("name", task.getName());
-        singleTask.put("createTime", task.getCreateTime());
-        singleTask.put("pdname", processDefinition.getName());
-        singleTask.put("pdversion", processDefinition.getVersion());
-        singleTask.put("pid", task.getProcessInstanceId());
-        singleTask.put("bizKey", processInstance.getBusinessKey());
-
-        try {
-            Map<String, Object> variables = taskService.getVariables(task.getId());
-            singleTask.put("initiator", variables.get(ActivitiService.BPM_INITIATOR_VAR_NAME));
-        } catch (Exception e) {
-            //处理避免由于实体对象查询异常导致页面显示错误页面
-            logger.error(e.getMessage(), e);
-        }
-
-        return singleTask;
-    }
-
     @MetaData(value = "用户待办任务列表")
     @SecurityControlIgnore
     public HttpHeaders userTasks() {
-        // 已经签收的任务
         String userpin = AuthContextHolder.getAuthUserPin();
-
-        List<Map<String, Object>> tasks = new ArrayList<Map<String, Object>>();
-
-        List<Task> todoList = taskService.createTaskQuery().taskAssignee(userpin).active().orderByTaskCreateTime()
-                .desc().list();
-        for (Task task : todoList) {
-            Map<String, Object> singleTask = packageTaskInfo(task);
-            singleTask.put("candidate", false);
-            tasks.add(singleTask);
-        }
-
-        // 等待签收的任务
-        List<Task> toClaimList = taskService.createTaskQuery().taskCandidateUser(userpin).active()
-                .orderByTaskCreateTime().desc().list();
-        for (Task task : toClaimList) {
-            Map<String, Object> singleTask = packageTaskInfo(task);
-            singleTask.put("candidate", true);
-            tasks.add(singleTask);
-        }
+        List<Map<String, Object>> tasks = activitiService.findUserTasks(userpin);
 
         HttpServletRequest request = ServletActionContext.getRequest();
         request.setAttribute("tasks", tasks);
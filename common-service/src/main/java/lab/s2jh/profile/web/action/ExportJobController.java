@@ -0,0 +1,77 @@
+package lab.s2jh.profile.web.action;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import lab.s2jh.core.annotation.MetaData;
+import lab.s2jh.core.exception.WebException;
+import lab.s2jh.core.service.ExportJob;
+import lab.s2jh.core.service.ExportJobService;
+import lab.s2jh.core.web.SimpleController;
+import lab.s2jh.core.web.annotation.SecurityControlIgnore;
+import lab.s2jh.core.web.view.OperationResult;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.struts2.ServletActionContext;
+import org.apache.struts2.rest.HttpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 当前用户后台导出任务状态查询及结果下载
+ * @see ExportJobService
+ */
+@MetaData(value = "导出任务")
+public class ExportJobController extends SimpleController {
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @SecurityControlIgnore
+    @MetaData(value = "导出任务列表")
+    public HttpHeaders jobs() {
+        setModel(exportJobService.findJobs());
+        return buildDefaultHttpHeaders();
+    }
+
+    @SecurityControlIgnore
+    @MetaData(value = "导出任务状态")
+    public HttpHeaders status() {
+        ExportJob job = exportJobService.findJob(getRequiredParameter("id"));
+        if (job == null) {
+            setModel(OperationResult.buildFailureResult("导出任务不存在或已过期清理"));
+        } else {
+            setModel(job);
+        }
+        return buildDefaultHttpHeaders();
+    }
+
+    @SecurityControlIgnore
+    @MetaData(value = "导出结果下载")
+    public void download() {
+        ExportJob job = exportJobService.findJob(getRequiredParameter("id"));
+        if (job == null || job.getFile() == null || !job.getFile().exists()) {
+            throw new WebException("导出任务未完成或已过期清理");
+        }
+        HttpServletResponse response = ServletActionContext.getResponse();
+        InputStream in = null;
+        OutputStream out = null;
+        try {
+            String filename = new String(job.getFileName().getBytes("GBK"), "ISO-8859-1");
+            response.setHeader("Content-Disposition", "attachment;filename=" + filename);
+            response.setContentType(job.getContentType());
+            response.setContentLength((int) job.getSize());
+            in = FileUtils.openInputStream(job.getFile());
+            out = response.getOutputStream();
+            IOUtils.copy(in, out);
+        } catch (IOException e) {
+            throw new WebException("导出结果下载异常", e);
+        } finally {
+            IOUtils.closeQuietly(in);
+            IOUtils.closeQuietly(out);
+        }
+    }
+}
@@ -2,12 +2,16 @@ package lab.s2jh.pub.web.action;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.servlet.ServletContext;
 
 import lab.s2jh.core.annotation.MetaData;
+import lab.s2jh.core.service.QueryResultCache;
 import lab.s2jh.core.web.SimpleController;
+import lab.s2jh.core.web.json.SerializedJsonCache;
 import lab.s2jh.core.web.listener.ApplicationContextPostListener;
+import lab.s2jh.core.web.rest.VersionedHttpHeaders;
 import lab.s2jh.sys.entity.DataDict;
 import lab.s2jh.sys.service.DataDictService;
 
@@ -15,9 +19,6 @@ import org.apache.struts2.ServletActionContext;
 import org.apache.struts2.rest.HttpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-
 /**
  * 公共数据服务处理
  */
@@ -26,15 +27,31 @@ public class DataController extends SimpleController {
     @Autowired
     private DataDictService dataDictService;
 
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private SerializedJsonCache serializedJsonCache;
+
     /**
+     * 枚举数据在应用启动时组装且运行期不变，以应用实例启动标识作为数据版本
      * @see ApplicationContextPostListener
      * @return
      */
     @MetaData("枚举数据集合")
     public HttpHeaders enums() {
-        ServletContext sc = ServletActionContext.getServletContext();
-        setModel(sc.getAttribute("enums"));
-        return buildDefaultHttpHeaders();
+        String version = queryResultCache.getDataVersion();
+        VersionedHttpHeaders httpHeaders = buildVersionedHttpHeaders(version);
+        if (!httpHeaders.isNotModified()) {
+            final ServletContext sc = ServletActionContext.getServletContext();
+            setModel(serializedJsonCache.get("enums", version, new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return sc.getAttribute("enums");
+                }
+            }));
+        }
+        return httpHeaders;
     }
 
     /**
@@ -43,19 +60,36 @@ public class DataController extends SimpleController {
      */
     @MetaData("数据字典数据集合")
     public HttpHeaders dictDatas() {
-        List<Map<String, Object>> datas = Lists.newArrayList();
-        List<DataDict> dataDicts = dataDictService.findAllCached();
-        for (DataDict dataDict : dataDicts) {
-            Map<String, Object> data = Maps.newHashMap();
-            data.put("primaryKey", dataDict.getPrimaryKey());
-            data.put("primaryValue", dataDict.getPrimaryValue());
-            DataDict parent = dataDict.getParent();
-            if (parent != null) {
-                data.put("parentPrimaryKey", parent.getPrimaryKey());
-            }
-            datas.add(data);
+        String version = queryResultCache.getDataVersion(DataDict.class);
+        VersionedHttpHeaders httpHeaders = buildVersionedHttpHeaders(version);
+        if (!httpHeaders.isNotModified()) {
+            setModel(serializedJsonCache.get("dictDatas", version, new Callable<List<Map<String, Object>>>() {
+                @Override
+                public List<Map<String, Object>> call() {
+                    return dataDictService.findAllCachedDatas();
+                }
+            }));
+        }
+        return httpHeaders;
+    }
+
+    /**
+     * 按照数据字典分类主键返回key-value结构的下级数据字典数据
+     * @return
+     */
+    @MetaData("分类数据字典数据")
+    public HttpHeaders dictData() {
+        final String primaryKey = getRequiredParameter("primaryKey");
+        String version = queryResultCache.getDataVersion(DataDict.class);
+        VersionedHttpHeaders httpHeaders = buildVersionedHttpHeaders(version);
+        if (!httpHeaders.isNotModified()) {
+            setModel(serializedJsonCache.get("dictData:" + primaryKey, version, new Callable<Map<String, String>>() {
+                @Override
+                public Map<String, String> call() {
+                    return dataDictService.findMapDataByPrimaryKey(primaryKey);
+                }
+            }));
         }
-        setModel(datas);
-        return buildDefaultHttpHeaders();
+        return httpHeaders;
     }
 }
@@ -5,6 +5,11 @@ import java.io.OutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import lab.s2jh.core.service.ExportJob;
+import lab.s2jh.core.service.ExportJobService;
+import lab.s2jh.core.web.SimpleController;
+import lab.s2jh.core.web.view.OperationResult;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.hssf.usermodel.HSSFCell;
@@ -12,30 +17,59 @@ import org.apache.poi.hssf.usermodel.HSSFRow;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.struts2.ServletActionContext;
-import org.apache.struts2.rest.RestActionSupport;
+import org.apache.struts2.rest.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * 表格组件功能
  */
-public class GridController extends RestActionSupport {
+public class GridController extends SimpleController {
 
     private final static Logger logger = LoggerFactory.getLogger(GridController.class);
 
-    public void export() throws Exception {
+    @Autowired(required = false)
+    private ExportJobService exportJobService;
+
+    /**
+     * 表格当前数据导出Excel：配置了 {@link ExportJobService} 则以后台任务生成文件并返回任务信息JSON，由前端轮询下载；
+     * 否则直接输出Excel响应
+     */
+    public HttpHeaders export() throws Exception {
         HttpServletRequest request = ServletActionContext.getRequest();
-        HttpServletResponse response = ServletActionContext.getResponse();
         String filename = request.getParameter("fileName");
+        final String exportDatas = request.getParameter("exportDatas");
+        if (exportJobService != null) {
+            final String sheetName = filename;
+            ExportJob job = exportJobService.submit("grid-export:" + filename + ":" + exportDatas.hashCode(),
+                    filename, "application/vnd.ms-excel;charset=UTF-8", new ExportJobService.ExportTask() {
+                        @Override
+                        public void export(ExportJob job, OutputStream out) throws Exception {
+                            writeWorkbook(sheetName, exportDatas, out);
+                        }
+                    });
+            setModel(OperationResult.buildSuccessResult("导出任务已提交，完成后自动下载", job));
+            return buildDefaultHttpHeaders();
+        }
+
+        HttpServletResponse response = ServletActionContext.getResponse();
         filename = new String(filename.getBytes("GBK"), "ISO-8859-1");
         response.setCharacterEncoding("UTF-8");
         response.setHeader("Content-Disposition", "attachment;filename=" + filename);
         response.setContentType("application/vnd.ms-excel;charset=UTF-8");
-        String exportDatas = request.getParameter("exportDatas");
         OutputStream os = response.getOutputStream();
+        try {
+            writeWorkbook(filename, exportDatas, os);
+        } finally {
+            IOUtils.closeQuietly(os);
+        }
+        return null;
+    }
 
-        HSSFWorkbook wb = new HSSFWorkbook();//创建Excel工作簿对象   
-        HSSFSheet sheet = wb.createSheet(filename);//创建Excel工作表对象     
+    private void writeWorkbook(String sheetName, String exportDatas, OutputStream os) throws Exception {
+        HSSFWorkbook wb = new HSSFWorkbook();//创建Excel工作簿对象
+        HSSFSheet sheet = wb.createSheet(sheetName);//创建Excel工作表对象
         String[] rows = exportDatas.split("\n");
         for (int i = 0; i < rows.length; i++) {
             String row = rows[i];
@@ -53,6 +87,5 @@ public class GridController extends RestActionSupport {
             }
         }
         wb.write(os);
-        IOUtils.closeQuietly(os);
     }
 }
@@ -18,6 +18,8 @@ import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * 任务计划运行历史记录
  */
@@ -160,7 +162,6 @@ public class JobRunHist extends BaseUuidEntity {
     }
 
     @Lob
-    @Basic(fetch = FetchType.LAZY)
     public String getResult() {
         return result;
     }
@@ -171,6 +172,7 @@ public class JobRunHist extends BaseUuidEntity {
 
     @Lob
     @Basic(fetch = FetchType.LAZY)
+    @JsonIgnore
     public String getExceptionStack() {
         return exceptionStack;
     }
@@ -0,0 +1,26 @@
+package lab.s2jh.schedule.job;
+
+import java.util.Map;
+
+import lab.s2jh.schedule.BaseQuartzJobBean;
+import lab.s2jh.sys.service.DataRetentionService;
+
+import org.quartz.JobExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 日志/历史类数据表定时保留清理任务（Quartz集群运行模式，确保同一时间只有一个节点执行清理）
+ */
+public class DataRetentionJob extends BaseQuartzJobBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(DataRetentionJob.class);
+
+    @Override
+    protected void executeInternalBiz(JobExecutionContext context) {
+        Map<String, Integer> result = getSpringBean(DataRetentionService.class).purge();
+        logger.info("Data retention purge result: {}", result);
+        context.setResult("Purged: " + result);
+    }
+
+}
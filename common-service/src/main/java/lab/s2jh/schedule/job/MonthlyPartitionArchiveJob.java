@@ -0,0 +1,26 @@
+package lab.s2jh.schedule.job;
+
+import java.util.Map;
+
+import lab.s2jh.core.service.MonthlyPartitionService;
+import lab.s2jh.schedule.BaseQuartzJobBean;
+
+import org.quartz.JobExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 按月分区流水数据定时归档任务（Quartz集群运行模式，确保同一时间只有一个节点执行归档）
+ */
+public class MonthlyPartitionArchiveJob extends BaseQuartzJobBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(MonthlyPartitionArchiveJob.class);
+
+    @Override
+    protected void executeInternalBiz(JobExecutionContext context) {
+        Map<String, Integer> result = getSpringBean(MonthlyPartitionService.class).archive();
+        logger.info("Monthly partition archive result: {}", result);
+        context.setResult("Archived: " + result);
+    }
+
+}
@@ -1,7 +1,9 @@
 package lab.s2jh.sys.entity;
 
+import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.Lob;
 import javax.persistence.Table;
 import javax.persistence.Transient;
@@ -85,6 +87,7 @@ public class ConfigProperty extends BaseUuidEntity {
     }
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @JsonIgnore
     public String getHtmlValue() {
         return htmlValue;
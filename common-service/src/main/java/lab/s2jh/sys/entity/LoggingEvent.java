@@ -3,6 +3,7 @@ package lab.s2jh.sys.entity;
 import java.util.Date;
 import java.util.List;
 
+import javax.persistence.Basic;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -245,6 +246,7 @@ public class LoggingEvent extends PersistableEntity<Long> implements DefaultAudi
     }
 
     @Column(length = 4000)
+    @Basic(fetch = FetchType.LAZY)
     @JsonIgnore
     public String getOperationExplain() {
         return operationExplain;
@@ -2,8 +2,10 @@ package lab.s2jh.sys.entity;
 
 import java.util.Date;
 
+import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.Lob;
 import javax.persistence.Table;
 import javax.persistence.Transient;
@@ -12,6 +14,7 @@ import lab.s2jh.core.annotation.MetaData;
 import lab.s2jh.core.entity.AttachmentableEntity;
 import lab.s2jh.core.entity.BaseUuidEntity;
 import lab.s2jh.core.entity.annotation.EntityAutoCode;
+import lab.s2jh.core.entity.annotation.FullTextIndexed;
 import lab.s2jh.core.web.json.DateTimeJsonSerializer;
 
 import org.apache.commons.lang3.StringUtils;
@@ -67,6 +70,7 @@ public class PubPost extends BaseUuidEntity implements AttachmentableEntity {
     }
 
     @Column(nullable = false)
+    @FullTextIndexed
     public String getHtmlTitle() {
         return htmlTitle;
     }
@@ -85,6 +89,7 @@ public class PubPost extends BaseUuidEntity implements AttachmentableEntity {
     }
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @JsonIgnore
     public String getHtmlContent() {
         return htmlContent;
@@ -2,9 +2,11 @@ package lab.s2jh.sys.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import lab.s2jh.core.dao.BaseDao;
 import lab.s2jh.core.service.BaseService;
+import lab.s2jh.core.service.SingleFlightExecutor;
 import lab.s2jh.sys.dao.DataDictDao;
 import lab.s2jh.sys.entity.DataDict;
 
@@ -13,6 +15,7 @@ import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 @Service
@@ -25,15 +28,49 @@ public class DataDictService extends BaseService<DataDict, String> {
     @Autowired
     private MessageSource messageSource;
 
+    @Autowired
+    private SingleFlightExecutor singleFlightExecutor;
+
     @Override
     protected BaseDao<DataDict, String> getEntityDao() {
         return dataDictDao;
     }
 
+    @Override
+    protected boolean isQueryResultCacheable() {
+        return true;
+    }
+
     public List<DataDict> findAllCached() {
         return dataDictDao.findAllCached();
     }
 
+    /**
+     * 以简单Map结构返回全部数据字典数据，用于前端数据字典数据加载
+     * 并发的相同请求合并为一次查询组装
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllCachedDatas() {
+        return singleFlightExecutor.execute("DataDictService.findAllCachedDatas",
+                new Callable<List<Map<String, Object>>>() {
+                    @Override
+                    public List<Map<String, Object>> call() {
+                        List<Map<String, Object>> datas = Lists.newArrayList();
+                        for (DataDict dataDict : findAllCached()) {
+                            Map<String, Object> data = Maps.newHashMap();
+                            data.put("primaryKey", dataDict.getPrimaryKey());
+                            data.put("primaryValue", dataDict.getPrimaryValue());
+                            DataDict parent = dataDict.getParent();
+                            if (parent != null) {
+                                data.put("parentPrimaryKey", parent.getPrimaryKey());
+                            }
+                            datas.add(data);
+                        }
+                        return datas;
+                    }
+                });
+    }
+
     public List<DataDict> findChildrenByPrimaryKey(String primaryKey) {
         DataDict parent = dataDictDao.findByPrimaryKey(primaryKey);
         return dataDictDao.findChildrenByParentAndDisabled(parent, false);
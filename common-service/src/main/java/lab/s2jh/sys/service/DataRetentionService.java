@@ -0,0 +1,414 @@
+package lab.s2jh.sys.service;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import lab.s2jh.core.exception.ServiceException;
+import lab.s2jh.core.util.DateUtils;
+import lab.s2jh.schedule.job.DataRetentionJob;
+import lab.s2jh.sys.vo.DataRetentionPolicy;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * 日志/历史类数据表保留清理服务
+ * 按照 {@link DataRetentionPolicy} 定义以小批量分段方式清理超出保留范围的数据：
+ * <ul>
+ * <li>每段数据在独立事务中先清理关联子表再清理主表，避免长事务大范围锁表</li>
+ * <li>每段之间暂停一定时间，并限定单次运行最多处理段数，避免对业务高峰造成冲击，未处理完的数据在下次运行继续处理</li>
+ * <li>可选在清理之前把数据以gzip压缩的TSV文本归档到文件，每段归档数据在本段清理事务提交之前写入并同步到磁盘，
+ * 归档失败则回滚本段清理并中止当前策略；如同步之后事务提交失败，下次运行会重复归档这部分数据</li>
+ * </ul>
+ * 在spring-schedule.xml中定义策略及运行参数，由 {@link DataRetentionJob} 定时调用
+ */
+public class DataRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataRetentionService.class);
+
+    private DataSource dataSource;
+
+    private TransactionTemplate transactionTemplate;
+
+    private List<DataRetentionPolicy> policies = Lists.newArrayList();
+
+    /** 每段清理记录数 */
+    private int chunkSize = 500;
+
+    /** 每段清理之后暂停毫秒数 */
+    private long pauseMillis = 200;
+
+    /** 每个策略单次运行最多处理段数 */
+    private int maxChunksPerRun = 200;
+
+    /** 归档文件目录 */
+    private String archiveDir;
+
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void setPolicies(List<DataRetentionPolicy> policies) {
+        this.policies = policies;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public void setPauseMillis(long pauseMillis) {
+        this.pauseMillis = pauseMillis;
+    }
+
+    public void setMaxChunksPerRun(int maxChunksPerRun) {
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    public void setArchiveDir(String archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+
+    /**
+     * 依次执行所有清理策略
+     * @return key=数据表名，value=清理记录数
+     */
+    public Map<String, Integer> purge() {
+        Map<String, Integer> result = Maps.newLinkedHashMap();
+        for (DataRetentionPolicy policy : policies) {
+            try {
+                result.put(policy.getTable(), purge(policy));
+            } catch (RuntimeException e) {
+                //单个策略异常不影响其余策略执行
+                logger.error("Data retention purge error for table: " + policy.getTable(), e);
+                result.put(policy.getTable(), -1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 执行单个清理策略
+     * @return 清理记录数
+     */
+    public int purge(DataRetentionPolicy policy) {
+        Map<String, String> childTables = resolveChildTables(policy);
+        Map<String, ArchiveWriter> archiveWriters = Maps.newHashMap();
+        int purged = 0;
+        int chunks = 0;
+        boolean completed = false;
+        try {
+            if (policy.getMaxAgeDays() != null) {
+                Date cutoff = new DateTime().minusDays(policy.getMaxAgeDays()).toDate();
+                Object cutoffParam = policy.isEpochMillis() ? (Object) cutoff.getTime() : new Timestamp(
+                        cutoff.getTime());
+                String sql = "select " + policy.getIdColumn() + " from " + policy.getTable() + " where "
+                        + policy.getDateColumn() + "<? order by " + policy.getDateColumn();
+                while (chunks < maxChunksPerRun) {
+                    List<Object> ids = queryIds(sql, chunkSize, cutoffParam);
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    purged += purgeChunk(policy, childTables, ids, archiveWriters);
+                    chunks++;
+                    if (ids.size() < chunkSize || !pause()) {
+                        break;
+                    }
+                }
+            }
+
+            if (policy.getMaxRows() != null) {
+                long excess = new JdbcTemplate(dataSource).queryForObject(
+                        "select count(*) from " + policy.getTable(), Long.class) - policy.getMaxRows();
+                String sql = "select " + policy.getIdColumn() + " from " + policy.getTable() + " order by "
+                        + policy.getDateColumn();
+                while (excess > 0 && chunks < maxChunksPerRun) {
+                    List<Object> ids = queryIds(sql, (int) Math.min(chunkSize, excess));
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    purged += purgeChunk(policy, childTables, ids, archiveWriters);
+                    excess -= ids.size();
+                    chunks++;
+                    if (excess > 0 && !pause()) {
+                        break;
+                    }
+                }
+            }
+            completed = true;
+        } finally {
+            closeArchiveWriters(archiveWriters, completed);
+        }
+        if (chunks >= maxChunksPerRun) {
+            logger.info("Data retention reached max chunks per run for table {}, rest will be purged next run",
+                    policy.getTable());
+        }
+        logger.info("Data retention purged {} rows from table {}", purged, policy.getTable());
+        return purged;
+    }
+
+    private List<Object> queryIds(String sql, int limit, Object... args) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setMaxRows(limit);
+        jdbcTemplate.setFetchSize(limit);
+        return jdbcTemplate.queryForList(sql, Object.class, args);
+    }
+
+    private int purgeChunk(final DataRetentionPolicy policy, final Map<String, String> childTables,
+            final List<Object> ids, final Map<String, ArchiveWriter> archiveWriters) {
+        return transactionTemplate.execute(new TransactionCallback<Integer>() {
+            @Override
+            public Integer doInTransaction(TransactionStatus status) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                Object[] args = ids.toArray();
+                String in = " in (" + StringUtils.repeat("?", ",", ids.size()) + ")";
+                for (Map.Entry<String, String> me : childTables.entrySet()) {
+                    String where = " where " + me.getValue() + in;
+                    if (policy.isArchive()) {
+                        archive(jdbcTemplate, me.getKey(), where, args, archiveWriters);
+                    }
+                    jdbcTemplate.update("delete from " + me.getKey() + where, args);
+                }
+                String where = " where " + policy.getIdColumn() + in;
+                if (policy.isArchive()) {
+                    archive(jdbcTemplate, policy.getTable(), where, args, archiveWriters);
+                }
+                int deleted = jdbcTemplate.update("delete from " + policy.getTable() + where, args);
+                //归档数据同步到磁盘之后才提交清理事务
+                for (ArchiveWriter archiveWriter : archiveWriters.values()) {
+                    archiveWriter.sync();
+                }
+                return deleted;
+            }
+        });
+    }
+
+    /**
+     * 关闭归档文件：正常结束时关闭异常直接抛出，标识本次清理失败；
+     * 已有异常抛出时只记录关闭异常，避免覆盖原始异常
+     */
+    private void closeArchiveWriters(Map<String, ArchiveWriter> archiveWriters, boolean completed) {
+        ServiceException closeException = null;
+        for (ArchiveWriter archiveWriter : archiveWriters.values()) {
+            try {
+                archiveWriter.close();
+            } catch (ServiceException e) {
+                logger.error(e.getMessage(), e);
+                if (closeException == null) {
+                    closeException = e;
+                }
+            }
+        }
+        if (completed && closeException != null) {
+            throw closeException;
+        }
+    }
+
+    private void archive(JdbcTemplate jdbcTemplate, String table, String where, Object[] args,
+            Map<String, ArchiveWriter> archiveWriters) {
+        ArchiveWriter archiveWriter = archiveWriters.get(table);
+        if (archiveWriter == null) {
+            archiveWriter = new ArchiveWriter(table);
+            archiveWriters.put(table, archiveWriter);
+        }
+        jdbcTemplate.query("select * from " + table + where, args, archiveWriter);
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 合并显式定义的子表以及基于表名后缀动态查找的子表
+     */
+    private Map<String, String> resolveChildTables(final DataRetentionPolicy policy) {
+        Map<String, String> childTables = Maps.newLinkedHashMap(policy.getChildTables());
+        if (StringUtils.isBlank(policy.getDiscoverChildTableSuffix())) {
+            return childTables;
+        }
+        final String suffix = policy.getDiscoverChildTableSuffix().toUpperCase();
+        List<String> tables = new JdbcTemplate(dataSource).execute(new ConnectionCallback<List<String>>() {
+            @Override
+            public List<String> doInConnection(Connection connection) throws SQLException, DataAccessException {
+                List<String> tables = Lists.newArrayList();
+                DatabaseMetaData metaData = connection.getMetaData();
+                ResultSet rs = metaData.getTables(connection.getCatalog(), null, "%", new String[] { "TABLE" });
+                try {
+                    while (rs.next()) {
+                        String name = rs.getString("TABLE_NAME");
+                        if (name.toUpperCase().endsWith(suffix) && !name.equalsIgnoreCase(policy.getTable())) {
+                            tables.add(name);
+                        }
+                    }
+                } finally {
+                    rs.close();
+                }
+                return tables;
+            }
+        });
+        for (String table : tables) {
+            childTables.put(table, policy.getDiscoverChildForeignKey());
+        }
+        return childTables;
+    }
+
+    /**
+     * 以gzip压缩的TSV文本格式追加写入归档数据，首行为字段名，NULL值以\N表示
+     * 每段数据写为独立的gzip成员并同步到磁盘，多成员gzip文件可被gunzip等工具直接连续解压
+     */
+    private class ArchiveWriter implements RowCallbackHandler {
+
+        private final String table;
+
+        private File file;
+
+        private FileOutputStream fileOut;
+
+        /** 已同步到磁盘的文件长度，之后写入的是尚未提交段的数据 */
+        private long syncedLength;
+
+        private GZIPOutputStream member;
+
+        private Writer writer;
+
+        /** 当前段是否有待同步的归档数据 */
+        private boolean pending;
+
+        private ArchiveWriter(String table) {
+            this.table = table;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                if (fileOut == null) {
+                    open();
+                    for (int i = 1; i <= columnCount; i++) {
+                        writer.write(i > 1 ? "\t" : "");
+                        writer.write(metaData.getColumnLabel(i));
+                    }
+                    writer.write("\n");
+                }
+                pending = true;
+                for (int i = 1; i <= columnCount; i++) {
+                    writer.write(i > 1 ? "\t" : "");
+                    Object value = rs.getObject(i);
+                    if (value == null) {
+                        writer.write("\\N");
+                    } else if (value instanceof Date) {
+                        writer.write(DateUtils.formatTime((Date) value));
+                    } else {
+                        writer.write(StringUtils.replaceEach(String.valueOf(value), new String[] { "\\", "\t",
+                                "\n", "\r" }, new String[] { "\\\\", "\\t", "\\n", "\\r" }));
+                    }
+                }
+                writer.write("\n");
+            } catch (IOException e) {
+                //归档失败则抛出异常回滚当前段清理事务，避免数据未归档即被清理
+                throw new ServiceException("Archive data error for table: " + table, e);
+            }
+        }
+
+        private void open() throws IOException {
+            Assert.hasText(archiveDir, "Undefined data retention archive dir");
+            File dir = new File(archiveDir);
+            if (!dir.exists()) {
+                dir.mkdirs();
+            }
+            file = new File(dir, table + "-" + DateUtils.formatDate(new Date(), "yyyyMMddHHmmss") + ".tsv.gz");
+            logger.info("Archiving data of table {} to file: {}", table, file.getAbsolutePath());
+            fileOut = new FileOutputStream(file);
+            openMember();
+        }
+
+        private void openMember() throws IOException {
+            member = new GZIPOutputStream(new CloseShieldOutputStream(fileOut));
+            writer = new BufferedWriter(new OutputStreamWriter(member, "UTF-8"));
+        }
+
+        /**
+         * 结束当前段的gzip成员并强制同步到磁盘
+         */
+        private void sync() {
+            if (!pending) {
+                return;
+            }
+            try {
+                writer.flush();
+                member.finish();
+                fileOut.flush();
+                fileOut.getFD().sync();
+                syncedLength = fileOut.getChannel().position();
+                pending = false;
+                openMember();
+            } catch (IOException e) {
+                throw new ServiceException("Archive data sync error for table: " + table, e);
+            }
+        }
+
+        private void close() {
+            if (fileOut == null) {
+                return;
+            }
+            try {
+                //已提交段的数据均已同步，截掉之后未完成的gzip成员（回滚段数据或预先写入的成员头），保证文件完整可解压
+                fileOut.getChannel().truncate(syncedLength);
+                fileOut.close();
+                if (syncedLength == 0) {
+                    file.delete();
+                }
+            } catch (IOException e) {
+                throw new ServiceException("Archive file close error for table: " + table, e);
+            } finally {
+                IOUtils.closeQuietly(fileOut);
+                fileOut = null;
+            }
+        }
+    }
+}
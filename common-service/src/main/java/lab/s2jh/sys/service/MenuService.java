@@ -7,12 +7,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 import lab.s2jh.auth.entity.Privilege;
 import lab.s2jh.auth.entity.Privilege.PrivilegeTypeEnum;
 import lab.s2jh.auth.service.PrivilegeService;
 import lab.s2jh.core.dao.BaseDao;
 import lab.s2jh.core.service.BaseService;
+import lab.s2jh.core.service.SingleFlightExecutor;
 import lab.s2jh.rpt.dao.ReportDefDao;
 import lab.s2jh.rpt.entity.ReportDef;
 import lab.s2jh.sys.dao.MenuDao;
@@ -53,6 +55,9 @@ public class MenuService extends BaseService<Menu, String> {
     @Autowired
     private SecurityMetadataSource securityMetadataSource;
 
+    @Autowired
+    private SingleFlightExecutor singleFlightExecutor;
+
     @Override
     protected BaseDao<Menu, String> getEntityDao() {
         return menuDao;
@@ -200,8 +205,26 @@ public class MenuService extends BaseService<Menu, String> {
 
     }
 
+    /**
+     * 基于授权集合组装用户导航菜单，相同授权集合的并发请求（如上班时间集中登录）合并为一次计算
+     */
     @Transactional(readOnly = true)
-    public List<NavMenuVO> authUserMenu(Set<GrantedAuthority> authorities, String currentWebContextPath) {
+    public List<NavMenuVO> authUserMenu(final Set<GrantedAuthority> authorities, final String currentWebContextPath) {
+        List<String> authorityCodes = Lists.newArrayList();
+        for (GrantedAuthority authority : authorities) {
+            authorityCodes.add(authority.getAuthority());
+        }
+        Collections.sort(authorityCodes);
+        String key = "MenuService.authUserMenu:" + currentWebContextPath + ":" + StringUtils.join(authorityCodes, ",");
+        return singleFlightExecutor.execute(key, new Callable<List<NavMenuVO>>() {
+            @Override
+            public List<NavMenuVO> call() {
+                return buildAuthUserMenu(authorities, currentWebContextPath);
+            }
+        });
+    }
+
+    private List<NavMenuVO> buildAuthUserMenu(Set<GrantedAuthority> authorities, String currentWebContextPath) {
         List<NavMenuVO> menuVOs = new ArrayList<NavMenuVO>();
         List<Menu> roots = this.findRoots();
         for (Menu root : roots) {
@@ -0,0 +1,126 @@
+package lab.s2jh.sys.vo;
+
+import java.util.Map;
+
+import lab.s2jh.core.annotation.MetaData;
+import lab.s2jh.sys.service.DataRetentionService;
+
+import com.google.common.collect.Maps;
+
+/**
+ * 日志/历史类数据表保留清理策略定义，按照时间和/或记录数两种方式限定保留数据范围
+ *
+ * @see DataRetentionService
+ */
+public class DataRetentionPolicy {
+
+    @MetaData(value = "数据表名")
+    private String table;
+
+    @MetaData(value = "主键字段名")
+    private String idColumn = "id";
+
+    @MetaData(value = "时间字段名", comments = "用于按时间清理以及按记录数清理时确定最早数据")
+    private String dateColumn;
+
+    @MetaData(value = "时间字段为毫秒数", comments = "如Logback DBAppender的timestmp字段以long类型记录毫秒数")
+    private boolean epochMillis = false;
+
+    @MetaData(value = "最长保留天数", comments = "为空表示不按时间清理")
+    private Integer maxAgeDays;
+
+    @MetaData(value = "最多保留记录数", comments = "为空表示不按记录数清理，超出部分按时间从早到晚清理")
+    private Long maxRows;
+
+    @MetaData(value = "关联子表", comments = "key=子表名，value=关联主表主键的外键字段名，清理主表数据之前先清理子表关联数据")
+    private Map<String, String> childTables = Maps.newLinkedHashMap();
+
+    @MetaData(value = "动态关联子表后缀", comments = "如Envers审计表的_AUD后缀，运行时基于数据库元数据查找所有匹配子表")
+    private String discoverChildTableSuffix;
+
+    @MetaData(value = "动态关联子表外键字段名", comments = "如Envers审计表的REV字段")
+    private String discoverChildForeignKey;
+
+    @MetaData(value = "清理前归档", comments = "清理之前把数据以gzip压缩的TSV文本格式写入归档目录")
+    private boolean archive = false;
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public String getIdColumn() {
+        return idColumn;
+    }
+
+    public void setIdColumn(String idColumn) {
+        this.idColumn = idColumn;
+    }
+
+    public String getDateColumn() {
+        return dateColumn;
+    }
+
+    public void setDateColumn(String dateColumn) {
+        this.dateColumn = dateColumn;
+    }
+
+    public boolean isEpochMillis() {
+        return epochMillis;
+    }
+
+    public void setEpochMillis(boolean epochMillis) {
+        this.epochMillis = epochMillis;
+    }
+
+    public Integer getMaxAgeDays() {
+        return maxAgeDays;
+    }
+
+    public void setMaxAgeDays(Integer maxAgeDays) {
+        this.maxAgeDays = maxAgeDays;
+    }
+
+    public Long getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(Long maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public Map<String, String> getChildTables() {
+        return childTables;
+    }
+
+    public void setChildTables(Map<String, String> childTables) {
+        this.childTables = childTables;
+    }
+
+    public String getDiscoverChildTableSuffix() {
+        return discoverChildTableSuffix;
+    }
+
+    public void setDiscoverChildTableSuffix(String discoverChildTableSuffix) {
+        this.discoverChildTableSuffix = discoverChildTableSuffix;
+    }
+
+    public String getDiscoverChildForeignKey() {
+        return discoverChildForeignKey;
+    }
+
+    public void setDiscoverChildForeignKey(String discoverChildForeignKey) {
+        this.discoverChildForeignKey = discoverChildForeignKey;
+    }
+
+    public boolean isArchive() {
+        return archive;
+    }
+
+    public void setArchive(boolean archive) {
+        this.archive = archive;
+    }
+}
@@ -11,8 +11,11 @@ import javax.servlet.http.HttpServletRequest;
 
 import lab.s2jh.core.annotation.MetaData;
 import lab.s2jh.core.context.SpringContextHolder;
+import lab.s2jh.core.dao.jdbc.MonitoredDataSource;
+import lab.s2jh.core.service.QueryResultCache;
 import lab.s2jh.core.service.Validation;
 import lab.s2jh.core.web.SimpleController;
+import lab.s2jh.core.web.json.SerializedJsonCache;
 import lab.s2jh.core.web.view.OperationResult;
 
 import org.apache.commons.lang3.StringUtils;
@@ -45,6 +48,15 @@ public class UtilController extends SimpleController {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private SerializedJsonCache serializedJsonCache;
+
+    @Autowired(required = false)
+    private MonitoredDataSource monitoredDataSource;
+
     @MetaData(value = "辅助管理")
     public HttpHeaders mgmt() {
         return buildDefaultHttpHeaders("mgmt");
@@ -59,6 +71,26 @@ public class UtilController extends SimpleController {
         return datas;
     }
 
+    public List<Map<String, Object>> getQueryResultCacheStatistics() {
+        return queryResultCache.getStatistics();
+    }
+
+    public long getQueryResultCacheSize() {
+        return queryResultCache.getSize();
+    }
+
+    public Map<String, Object> getDataSourceStatistics() {
+        return monitoredDataSource == null ? null : monitoredDataSource.getStatistics();
+    }
+
+    public Map<String, Long> getDataSourceAcquireHistogram() {
+        return monitoredDataSource == null ? null : monitoredDataSource.getAcquireHistogram();
+    }
+
+    public List<Map<String, Object>> getDataSourceBorrowedConnections() {
+        return monitoredDataSource == null ? null : monitoredDataSource.getBorrowedConnections();
+    }
+
     @MetaData(value = "刷新数据缓存")
     public HttpHeaders dataEvictCache() {
         HttpServletRequest request = ServletActionContext.getRequest();
@@ -85,6 +117,8 @@ public class UtilController extends SimpleController {
             for (String cacheName : cacheManager.getCacheNames()) {
                 cacheManager.getCache(cacheName).clear();
             }
+            queryResultCache.clear();
+            serializedJsonCache.clear();
         }
         model = OperationResult.buildSuccessResult("数据缓存刷新操作成功");
         return new DefaultHttpHeaders().disableCaching();
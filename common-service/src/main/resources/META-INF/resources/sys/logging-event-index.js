@@ -35,6 +35,7 @@ $(function() {
 
         } ],
         sortname : 'timestmp',
+        compact : true,
         delurl : WEB_ROOT + '/sys/logging-event!doDelete',
         fullediturl : WEB_ROOT + '/sys/logging-event!edit',
         addable : false
@@ -23,6 +23,40 @@
 				</div>
 			</div>
 		</div>
+		<div class="row">
+			<div class="col-md-12">
+				<div class="form-group">
+					<label class="control-label">查询结果缓存</label>
+					<div class="controls">
+						<p class="form-control-static">当前缓存项数量：<s:property value="queryResultCacheSize" />，刷新范围为空时同时清空查询结果缓存</p>
+						<table class="table table-striped table-bordered table-condensed">
+							<thead>
+								<tr>
+									<th>实体类型</th>
+									<th>命中</th>
+									<th>未命中</th>
+									<th>命中率(%)</th>
+									<th>事务内绕过</th>
+									<th>失效通知</th>
+								</tr>
+							</thead>
+							<tbody>
+								<s:iterator value="queryResultCacheStatistics" var="item">
+									<tr>
+										<td><s:property value="#item.entityClass" /></td>
+										<td><s:property value="#item.hits" /></td>
+										<td><s:property value="#item.misses" /></td>
+										<td><s:property value="#item.hitRatio" /></td>
+										<td><s:property value="#item.bypasses" /></td>
+										<td><s:property value="#item.invalidations" /></td>
+									</tr>
+								</s:iterator>
+							</tbody>
+						</table>
+					</div>
+				</div>
+			</div>
+		</div>
 	</div>
 	<div class="form-actions right">
 		<button class="btn blue" type="submit">
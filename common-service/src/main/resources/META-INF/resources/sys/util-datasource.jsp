@@ -0,0 +1,82 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ include file="/common/taglibs.jsp"%>
+<div class="form-horizontal form-bordered form-label-stripped">
+	<div class="form-body">
+		<s:if test="dataSourceStatistics==null">
+			<div class="alert alert-warning">
+				<p>当前数据源未配置连接池监控包裹(MonitoredDataSource)，无监控数据</p>
+			</div>
+		</s:if>
+		<s:else>
+			<div class="alert alert-info">
+				<p>统计数据自应用启动开始累计，pool.开头的数据项为被包裹连接池自身提供的状态数据</p>
+			</div>
+			<div class="row">
+				<div class="col-md-6">
+					<div class="form-group">
+						<label class="control-label">运行统计</label>
+						<div class="controls">
+							<table class="table table-striped table-bordered table-condensed">
+								<tbody>
+									<s:iterator value="dataSourceStatistics" var="item">
+										<tr>
+											<td><s:property value="#item.key" /></td>
+											<td><s:property value="#item.value" /></td>
+										</tr>
+									</s:iterator>
+								</tbody>
+							</table>
+						</div>
+					</div>
+				</div>
+				<div class="col-md-6">
+					<div class="form-group">
+						<label class="control-label">获取耗时分布</label>
+						<div class="controls">
+							<table class="table table-striped table-bordered table-condensed">
+								<tbody>
+									<s:iterator value="dataSourceAcquireHistogram" var="item">
+										<tr>
+											<td><s:property value="#item.key" /></td>
+											<td><s:property value="#item.value" /></td>
+										</tr>
+									</s:iterator>
+								</tbody>
+							</table>
+						</div>
+					</div>
+				</div>
+			</div>
+			<div class="row">
+				<div class="col-md-12">
+					<div class="form-group">
+						<label class="control-label">当前借出连接</label>
+						<div class="controls">
+							<table class="table table-striped table-bordered table-condensed">
+								<thead>
+									<tr>
+										<th>借出线程</th>
+										<th>借出时长(ms)</th>
+										<th>疑似泄漏</th>
+										<th>借出堆栈</th>
+									</tr>
+								</thead>
+								<tbody>
+									<s:iterator value="dataSourceBorrowedConnections" var="item">
+										<tr>
+											<td><s:property value="#item.threadName" /></td>
+											<td><s:property value="#item.heldMillis" /></td>
+											<td><s:property value="#item.leaked" /></td>
+											<td><pre><s:property value="#item.stackTrace" /></pre></td>
+										</tr>
+									</s:iterator>
+								</tbody>
+							</table>
+						</div>
+					</div>
+				</div>
+			</div>
+		</s:else>
+	</div>
+</div>
+<%@ include file="/common/ajax-footer.jsp"%>
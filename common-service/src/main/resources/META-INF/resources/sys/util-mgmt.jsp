@@ -16,6 +16,14 @@
 							为了系统运行效率，系统会基于Hibernate和Spring的Cache支持尽可能缓存数据 <br>此功能主要用于直接修改数据库数据后，通知缓存框架移除选取范围的缓存数据从而加载最新数据库数据.
 						</p>
 					</div>
+				</a> <a class="list-group-item" href="javascript:;" data-toggle="dynamic-tab" data-url="${base}/sys/util!forward?_to_=datasource"
+					data-title="连接池监控">
+					<div class="note note-info" style="margin-bottom: 0">
+						<h4 class="block">连接池监控</h4>
+						<p>
+							查看数据库连接获取耗时分布、等待线程数、借出连接数及PreparedStatement缓存命中情况 <br>开启泄漏检测时可查看长时间未归还连接的借出线程及调用堆栈，用于排查连接泄漏问题.
+						</p>
+					</div>
 				</a> <a class="list-group-item" href="javascript:;" data-toggle="dynamic-tab" data-url="${base}/sys/util!forward?_to_=logger"
 					data-title="日志管理">
 					<div class="note note-info" style="margin-bottom: 0">
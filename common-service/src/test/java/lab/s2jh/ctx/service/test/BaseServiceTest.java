@@ -23,6 +23,8 @@ import lab.s2jh.core.test.TestObjectUtils;
 import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 
 import com.google.common.collect.Maps;
 
@@ -123,4 +125,34 @@ public class BaseServiceTest extends SpringTransactionalTestCase {
         userLogonLogService.findByGroupAggregate(null, null, "username",
                 "case(equal(count(username),0),-1,count(username))");
     }
+
+    @Test
+    public void findByPageNativeSQL() {
+        for (int i = 0; i < 3; i++) {
+            UserLogonLog entity = TestObjectUtils.buildMockObject(UserLogonLog.class);
+            entity.setUsername("native");
+            userLogonLogService.save(entity);
+        }
+        entityManager.flush();
+
+        Page<Map> page = userLogonLogService.findByPageNativeSQL(new PageRequest(0, 2),
+                "select username from tbl_AUTH_LOGON_LOG where username='native' order by username");
+        Assert.assertEquals(3, page.getTotalElements());
+        Assert.assertEquals(2, page.getContent().size());
+    }
+
+    @Test
+    public void findByPageNativeSQLWithDistinct() {
+        for (String username : new String[] { "distinct1", "distinct1", "distinct2" }) {
+            UserLogonLog entity = TestObjectUtils.buildMockObject(UserLogonLog.class);
+            entity.setUsername(username);
+            userLogonLogService.save(entity);
+        }
+        entityManager.flush();
+
+        Page<Map> page = userLogonLogService.findByPageNativeSQL(new PageRequest(0, 1),
+                "select distinct(username) from tbl_AUTH_LOGON_LOG where username like 'distinct%' order by username");
+        Assert.assertEquals(2, page.getTotalElements());
+        Assert.assertEquals(1, page.getContent().size());
+    }
 }
@@ -0,0 +1,36 @@
+package lab.s2jh.core.audit;
+
+import java.util.Date;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+import lab.s2jh.core.entity.annotation.MonthlyPartition;
+import lab.s2jh.core.exception.ServiceException;
+import lab.s2jh.core.util.DateUtils;
+import lab.s2jh.core.util.reflection.AccessorRegistry;
+
+/**
+ * 基于 {@link MonthlyPartition} 注解定义在数据保存时自动计算分区属性值
+ * 需要在实体类以@EntityListeners方式注册，由于父类注册的 {@link SaveUpdateAuditListener} 先于子类注册的监听器执行，
+ * 因此分区日期属性也可以是createdDate这样的审计属性
+ */
+public class MonthlyPartitionListener {
+
+    @PrePersist
+    @PreUpdate
+    public void touchPartition(Object target) {
+        MonthlyPartition monthlyPartition = target.getClass().getAnnotation(MonthlyPartition.class);
+        if (monthlyPartition == null) {
+            return;
+        }
+        try {
+            Date date = (Date) AccessorRegistry.getProperty(target, monthlyPartition.dateProperty());
+            //分区日期为空则按当前月份分区存储，不回写业务日期属性
+            AccessorRegistry.setProperty(target, monthlyPartition.partitionProperty(),
+                    DateUtils.toYearMonth(date == null ? new Date() : date));
+        } catch (Exception e) {
+            throw new ServiceException("error.monthly.partition", e);
+        }
+    }
+}
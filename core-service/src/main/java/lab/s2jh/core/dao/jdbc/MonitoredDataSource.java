@@ -0,0 +1,451 @@
+package lab.s2jh.core.dao.jdbc;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import lab.s2jh.core.util.reflection.AccessorRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * 连接池监控包装数据源
+ * 包裹实际的连接池数据源（JNDI或tomcat-jdbc等），对连接获取及使用过程进行统计：
+ * <ul>
+ * <li>连接获取耗时分布直方图、平均及最大耗时、当前及峰值等待线程数</li>
+ * <li>当前及峰值借出连接数，超过泄漏阈值时间未归还的连接记录借出线程及调用堆栈并输出警告日志</li>
+ * <li>可选的单连接PreparedStatement缓存，同一连接借出期间重复执行的相同SQL复用已预编译语句</li>
+ * <li>被包裹的连接池如提供size/idle/active/waitCount等属性则一并输出连接池自身状态</li>
+ * </ul>
+ * 注意PreparedStatement缓存生命周期限定为连接单次借出期间，跨借出的物理连接级别缓存需在连接池或JDBC驱动层面配置
+ * （如tomcat-jdbc的StatementCache拦截器或MySQL驱动的cachePrepStmts参数）
+ */
+public class MonitoredDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitoredDataSource.class);
+
+    /** 连接获取耗时直方图区间上限，单位毫秒，最后额外一个区间统计超出最大上限的次数 */
+    private static final long[] ACQUIRE_BUCKETS = new long[] { 1, 5, 10, 50, 100, 500, 1000 };
+
+    /** 被包裹连接池可能提供的状态属性 */
+    private static final String[] POOL_PROPERTIES = new String[] { "size", "idle", "active", "waitCount",
+            "maxActive", "numActive", "numIdle" };
+
+    /** 连接借出超过此毫秒数未归还视为疑似泄漏，0表示关闭泄漏检测 */
+    private long leakDetectionThreshold = 0;
+
+    /** 单连接PreparedStatement缓存数量，0表示关闭缓存 */
+    private int statementCacheSize = 0;
+
+    private final AtomicLong acquired = new AtomicLong();
+
+    private final AtomicLong acquireFailures = new AtomicLong();
+
+    private final AtomicLong acquireNanos = new AtomicLong();
+
+    private final AtomicLong maxAcquireMillis = new AtomicLong();
+
+    private final AtomicLongArray acquireHistogram = new AtomicLongArray(ACQUIRE_BUCKETS.length + 1);
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final AtomicInteger peakWaiting = new AtomicInteger();
+
+    private final AtomicInteger peakActive = new AtomicInteger();
+
+    private final AtomicLong statementCacheHits = new AtomicLong();
+
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    private final AtomicLong lastLeakCheck = new AtomicLong();
+
+    /** 当前借出连接，key=连接代理对象 */
+    private final ConcurrentMap<Connection, BorrowInfo> borrowed = new ConcurrentHashMap<Connection, BorrowInfo>();
+
+    public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        waiting();
+        try {
+            return monitor(getTargetDataSource().getConnection(), start);
+        } catch (SQLException e) {
+            acquireFailures.incrementAndGet();
+            throw e;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        waiting();
+        try {
+            return monitor(getTargetDataSource().getConnection(username, password), start);
+        } catch (SQLException e) {
+            acquireFailures.incrementAndGet();
+            throw e;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void waiting() {
+        updateMax(peakWaiting, waiting.incrementAndGet());
+    }
+
+    private Connection monitor(Connection connection, long start) {
+        long millis = (System.nanoTime() - start) / 1000000;
+        acquired.incrementAndGet();
+        acquireNanos.addAndGet(System.nanoTime() - start);
+        long max = maxAcquireMillis.get();
+        while (millis > max && !maxAcquireMillis.compareAndSet(max, millis)) {
+            max = maxAcquireMillis.get();
+        }
+        int bucket = 0;
+        while (bucket < ACQUIRE_BUCKETS.length && millis >= ACQUIRE_BUCKETS[bucket]) {
+            bucket++;
+        }
+        acquireHistogram.incrementAndGet(bucket);
+
+        ConnectionHandler handler = new ConnectionHandler(connection);
+        Connection proxy = (Connection) Proxy.newProxyInstance(MonitoredDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, handler);
+        handler.proxy = proxy;
+        borrowed.put(proxy, new BorrowInfo(leakDetectionThreshold > 0));
+        updateMax(peakActive, borrowed.size());
+        if (leakDetectionThreshold > 0) {
+            long now = System.currentTimeMillis();
+            long last = lastLeakCheck.get();
+            if (now - last > leakDetectionThreshold && lastLeakCheck.compareAndSet(last, now)) {
+                checkLeaks();
+            }
+        }
+        return proxy;
+    }
+
+    private static void updateMax(AtomicInteger max, int value) {
+        int current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * 检查超过泄漏阈值时间仍未归还的连接，每个连接只输出一次警告日志
+     * @return 疑似泄漏连接数量
+     */
+    public int checkLeaks() {
+        if (leakDetectionThreshold <= 0) {
+            return 0;
+        }
+        int count = 0;
+        long now = System.currentTimeMillis();
+        for (BorrowInfo borrowInfo : borrowed.values()) {
+            if (now - borrowInfo.borrowTime > leakDetectionThreshold) {
+                count++;
+                if (!borrowInfo.reported) {
+                    borrowInfo.reported = true;
+                    logger.warn("Connection borrowed by thread [" + borrowInfo.threadName + "] not returned for "
+                            + (now - borrowInfo.borrowTime) + " ms, possible connection leak", borrowInfo.stack);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 汇总统计数据，用于管理界面展示
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        long acquiredCount = acquired.get();
+        stats.put("acquired", acquiredCount);
+        stats.put("acquireFailures", acquireFailures.get());
+        stats.put("avgAcquireMillis", acquiredCount == 0 ? 0 : acquireNanos.get() / acquiredCount / 1000000.0);
+        stats.put("maxAcquireMillis", maxAcquireMillis.get());
+        stats.put("waiting", waiting.get());
+        stats.put("peakWaiting", peakWaiting.get());
+        stats.put("active", borrowed.size());
+        stats.put("peakActive", peakActive.get());
+        stats.put("leaked", checkLeaks());
+        stats.put("statementCacheSize", statementCacheSize);
+        stats.put("statementCacheHits", statementCacheHits.get());
+        stats.put("statementCacheMisses", statementCacheMisses.get());
+        DataSource target = getTargetDataSource();
+        for (String property : POOL_PROPERTIES) {
+            Method method = AccessorRegistry.getReadMethod(target.getClass(), property);
+            if (method != null && method.getParameterTypes().length == 0) {
+                try {
+                    stats.put("pool." + property, method.invoke(target));
+                } catch (Exception e) {
+                    logger.debug("Read pool property {} error: {}", property, e.getMessage());
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 连接获取耗时分布直方图，key=耗时区间描述，value=次数
+     */
+    public Map<String, Long> getAcquireHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < ACQUIRE_BUCKETS.length; i++) {
+            histogram.put("<" + ACQUIRE_BUCKETS[i] + "ms", acquireHistogram.get(i));
+        }
+        histogram.put(">=" + ACQUIRE_BUCKETS[ACQUIRE_BUCKETS.length - 1] + "ms",
+                acquireHistogram.get(ACQUIRE_BUCKETS.length));
+        return histogram;
+    }
+
+    /**
+     * 当前借出连接列表，按借出时长倒序，包含借出线程、借出时长及开启泄漏检测时的借出调用堆栈
+     */
+    public List<Map<String, Object>> getBorrowedConnections() {
+        List<BorrowInfo> borrowInfos = Lists.newArrayList(borrowed.values());
+        Collections.sort(borrowInfos, new Comparator<BorrowInfo>() {
+            @Override
+            public int compare(BorrowInfo o1, BorrowInfo o2) {
+                return o1.borrowTime < o2.borrowTime ? -1 : (o1.borrowTime == o2.borrowTime ? 0 : 1);
+            }
+        });
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> result = Lists.newArrayList();
+        for (BorrowInfo borrowInfo : borrowInfos) {
+            Map<String, Object> item = Maps.newLinkedHashMap();
+            item.put("threadName", borrowInfo.threadName);
+            item.put("heldMillis", now - borrowInfo.borrowTime);
+            item.put("leaked", leakDetectionThreshold > 0 && now - borrowInfo.borrowTime > leakDetectionThreshold);
+            if (borrowInfo.stack != null) {
+                StringWriter writer = new StringWriter();
+                borrowInfo.stack.printStackTrace(new PrintWriter(writer));
+                item.put("stackTrace", writer.toString());
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    private static class BorrowInfo {
+
+        private final long borrowTime = System.currentTimeMillis();
+
+        private final String threadName = Thread.currentThread().getName();
+
+        private final Throwable stack;
+
+        private volatile boolean reported = false;
+
+        private BorrowInfo(boolean captureStack) {
+            this.stack = captureStack ? new Throwable("Connection borrow stack") : null;
+        }
+    }
+
+    /**
+     * 连接代理：归还时移除借出记录及关闭缓存的PreparedStatement，按SQL缓存已关闭的PreparedStatement供同一连接后续复用
+     */
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private Connection proxy;
+
+        private boolean closed = false;
+
+        /** 调用方已关闭可复用的PreparedStatement，按最近使用顺序淘汰 */
+        private final LinkedHashMap<String, PreparedStatement> statementCache = new LinkedHashMap<String, PreparedStatement>(
+                16, 0.75f, true);
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            } else if ("close".equals(name)) {
+                close();
+                return null;
+            } else if ("isClosed".equals(name)) {
+                return closed || target.isClosed();
+            } else if ("prepareStatement".equals(name) && statementCacheSize > 0 && !closed) {
+                return prepareStatement(method, args);
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private synchronized Object prepareStatement(Method method, Object[] args) throws Throwable {
+            String key = buildStatementKey(args);
+            PreparedStatement statement = statementCache.remove(key);
+            if (statement != null) {
+                statementCacheHits.incrementAndGet();
+            } else {
+                statementCacheMisses.incrementAndGet();
+                statement = (PreparedStatement) invokeTarget(target, method, args);
+            }
+            return Proxy.newProxyInstance(MonitoredDataSource.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, new StatementHandler(this, key, statement));
+        }
+
+        /**
+         * 调用方关闭PreparedStatement时放回缓存，缓存已有相同SQL或已超出缓存数量则真正关闭；
+         * 放回缓存前重置调用方可能设置的最大行数、抓取行数、超时等语句属性为JDBC缺省值，避免影响下一个使用者
+         */
+        private synchronized void release(String key, PreparedStatement statement) throws SQLException {
+            if (closed || statementCache.containsKey(key)) {
+                statement.close();
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                statement.setMaxRows(0);
+                statement.setMaxFieldSize(0);
+                statement.setQueryTimeout(0);
+                statement.setFetchSize(0);
+            } catch (SQLException e) {
+                //无法确保语句状态已重置则不再缓存复用
+                logger.debug("Reset cached PreparedStatement failed, close it", e);
+                statement.close();
+                return;
+            }
+            statementCache.put(key, statement);
+            if (statementCache.size() > statementCacheSize) {
+                Iterator<PreparedStatement> iterator = statementCache.values().iterator();
+                PreparedStatement eldest = iterator.next();
+                iterator.remove();
+                closeQuietly(eldest);
+            }
+        }
+
+        private void close() throws SQLException {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                for (PreparedStatement statement : statementCache.values()) {
+                    closeQuietly(statement);
+                }
+                statementCache.clear();
+            }
+            borrowed.remove(proxy);
+            target.close();
+        }
+    }
+
+    /**
+     * PreparedStatement代理：拦截close回收到连接缓存，getConnection返回连接代理对象
+     */
+    private static class StatementHandler implements InvocationHandler {
+
+        private final ConnectionHandler connectionHandler;
+
+        private final String key;
+
+        private final PreparedStatement target;
+
+        private boolean closed = false;
+
+        private StatementHandler(ConnectionHandler connectionHandler, String key, PreparedStatement target) {
+            this.connectionHandler = connectionHandler;
+            this.key = key;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            } else if ("close".equals(name)) {
+                if (!closed) {
+                    closed = true;
+                    connectionHandler.release(key, target);
+                }
+                return null;
+            } else if ("isClosed".equals(name)) {
+                return closed;
+            } else if ("getConnection".equals(name)) {
+                return connectionHandler.proxy;
+            }
+            if (closed) {
+                throw new SQLException("PreparedStatement is closed");
+            }
+            return invokeTarget(target, method, args);
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static String buildStatementKey(Object[] args) {
+        StringBuilder sb = new StringBuilder(String.valueOf(args[0]));
+        for (int i = 1; i < args.length; i++) {
+            Object arg = args[i];
+            sb.append('|');
+            if (arg instanceof int[]) {
+                sb.append(Arrays.toString((int[]) arg));
+            } else if (arg instanceof Object[]) {
+                sb.append(Arrays.toString((Object[]) arg));
+            } else {
+                sb.append(arg);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.debug("Close cached statement error: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package lab.s2jh.core.entity;
+
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.EntityListeners;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+import lab.s2jh.core.audit.SaveUpdateAuditListener;
+import lab.s2jh.core.entity.id.TimeOrderedUUIDGenerator;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+import org.hibernate.envers.AuditOverride;
+import org.hibernate.envers.AuditOverrides;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 框架提供一个基础的紧凑UUID方式的实体对象定义参考
+ * 与 {@link BaseUuidEntity} 相比主键以16字节二进制形式存储，主键及关联外键索引体积不到字符串形式的一半，适合数据量较大的业务表
+ * 主键按 {@link TimeOrderedUUIDGenerator} 时间有序生成，页面及JSON交互仍以标准UUID字符串形式传递
+ */
+@JsonInclude(Include.NON_EMPTY)
+@EntityListeners({ SaveUpdateAuditListener.class })
+@MappedSuperclass
+@AuditOverrides({ @AuditOverride(forClass = BaseCompactUuidEntity.class) })
+public abstract class BaseCompactUuidEntity extends BaseEntity<UUID> {
+
+    private UUID id;
+
+    @Id
+    @Column(length = 16)
+    @Type(type = "uuid-binary")
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "lab.s2jh.core.entity.id.TimeOrderedUUIDGenerator")
+    @JsonProperty
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(final UUID id) {
+        this.id = id;
+    }
+}
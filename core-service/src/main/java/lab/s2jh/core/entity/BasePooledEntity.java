@@ -0,0 +1,63 @@
+package lab.s2jh.core.entity;
+
+import javax.persistence.EntityListeners;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+import lab.s2jh.core.audit.SaveUpdateAuditListener;
+import lab.s2jh.core.entity.id.PooledIdGeneratorInitializer;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.envers.AuditOverride;
+import org.hibernate.envers.AuditOverrides;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 框架提供一个基础的池化分配(pooled hi/lo)Long主键方式的实体对象定义参考
+ * 与 {@link BaseNativeEntity} 数据库自增主键每次插入都需要数据库生成主键不同，每个节点每次从主键表申请一段主键在内存中分配，
+ * 插入数据无需等待数据库返回主键，并且可以启用Hibernate JDBC批量插入，适合数据插入频繁的流水明细类业务表
+ * 主键表中每个实体表对应一行记录，由 {@link PooledIdGeneratorInitializer} 在应用启动时基于实体表已有最大主键初始化
+ */
+@JsonInclude(Include.NON_EMPTY)
+@EntityListeners({ SaveUpdateAuditListener.class })
+@MappedSuperclass
+@AuditOverrides({ @AuditOverride(forClass = BasePooledEntity.class) })
+public abstract class BasePooledEntity extends BaseEntity<Long> {
+
+    /** 主键分配表名 */
+    public static final String ID_GENERATOR_TABLE = "TBL_SYS_ID_GENERATOR";
+
+    /** 主键分配表实体表名字段 */
+    public static final String ID_GENERATOR_SEGMENT_COLUMN = "seq_name";
+
+    /** 主键分配表下一主键值字段 */
+    public static final String ID_GENERATOR_VALUE_COLUMN = "next_val";
+
+    /** 每次申请主键段大小 */
+    public static final String ID_GENERATOR_INCREMENT_SIZE = "50";
+
+    private Long id;
+
+    @Id
+    @GeneratedValue(generator = "pooledIdGenerator")
+    @GenericGenerator(name = "pooledIdGenerator", strategy = "enhanced-table", parameters = {
+            @Parameter(name = "table_name", value = ID_GENERATOR_TABLE),
+            @Parameter(name = "segment_column_name", value = ID_GENERATOR_SEGMENT_COLUMN),
+            @Parameter(name = "value_column_name", value = ID_GENERATOR_VALUE_COLUMN),
+            @Parameter(name = "prefer_entity_table_as_segment_value", value = "true"),
+            @Parameter(name = "increment_size", value = ID_GENERATOR_INCREMENT_SIZE),
+            @Parameter(name = "optimizer", value = "pooled") })
+    @JsonProperty
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(final Long id) {
+        this.id = id;
+    }
+}
@@ -37,7 +37,8 @@ public abstract class BaseUuidEntity extends BaseEntity<String> {
     @Column(length = 40)
     @GeneratedValue(generator = "hibernate-uuid")
     //HHH000409: Using org.hibernate.id.UUIDHexGenerator which does not generate IETF RFC 4122 compliant UUID values; consider using org.hibernate.id.UUIDGenerator instead 
-    @GenericGenerator(name = "hibernate-uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    //按时间有序生成UUID，避免随机UUID主键插入分散在整个索引树导致页分裂
+    @GenericGenerator(name = "hibernate-uuid", strategy = "lab.s2jh.core.entity.id.TimeOrderedUUIDGenerator")
     @JsonProperty
     public String getId() {
         return id;
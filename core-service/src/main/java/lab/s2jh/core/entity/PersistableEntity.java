@@ -8,11 +8,14 @@ import javax.persistence.Transient;
 
 import lab.s2jh.core.security.AuthContextHolder;
 import lab.s2jh.core.util.DateUtils;
+import lab.s2jh.core.web.rest.Jackson2LibHandler;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Persistable;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -20,6 +23,9 @@ import com.google.common.collect.Maps;
 
 @MappedSuperclass
 @JsonInclude(Include.NON_NULL)
+@JsonFilter(Jackson2LibHandler.DEFAULT_JSON_FILTER_NAME)
+//编译期Hibernate字节码增强为实体类追加的FieldHandled接口属性，不参与JSON序列化
+@JsonIgnoreProperties({ "fieldHandler" })
 public abstract class PersistableEntity<ID extends Serializable> implements Persistable<ID> {
 
     public static final String EXTRA_ATTRIBUTE_GRID_TREE_LEVEL = "level";
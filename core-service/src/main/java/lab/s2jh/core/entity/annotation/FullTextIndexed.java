@@ -0,0 +1,21 @@
+package lab.s2jh.core.entity.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import lab.s2jh.core.service.FullTextIndexService;
+
+/**
+ * 标识需要建立内存全文索引的字符串属性，标注在属性getter方法上
+ * 基于此属性的CN包含查询不再生成 like '%x%' 全表扫描，而是由 {@link FullTextIndexService} 查找匹配主键集合转换为主键IN查询
+ * 适合名称、标题、登录账号等长度较短的文本属性，大文本内容属性不建议标注
+ *
+ * @see FullTextIndexService
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+public @interface FullTextIndexed {
+
+}
@@ -0,0 +1,31 @@
+package lab.s2jh.core.entity.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import lab.s2jh.core.audit.MonthlyPartitionListener;
+import lab.s2jh.core.service.BaseService;
+
+/**
+ * 标识按月分区存储的流水类实体，如库存变动明细、会计分录明细等只增不改的数据
+ * 实体需定义Integer类型的分区属性(yyyyMM格式)，并注册 {@link MonthlyPartitionListener} 在保存时基于分区日期属性自动计算赋值
+ * 分区属性对应数据库字段可作为数据库原生范围分区(如Oracle Range Partition)的分区键，无原生分区支持的数据库则作为索引字段
+ * 
+ * @see MonthlyPartitionListener
+ * @see BaseService#archivePartition(int)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface MonthlyPartition {
+
+    /** 分区依据的日期属性名称，查询条件中包含此属性的日期过滤条件时自动追加分区属性过滤条件 */
+    String dateProperty();
+
+    /** 分区属性名称 */
+    String partitionProperty() default "partitionMonth";
+
+    /** 归档数据表名后缀，归档表与主表结构一致 */
+    String archiveTableSuffix() default "_arch";
+}
@@ -0,0 +1,81 @@
+package lab.s2jh.core.entity.id;
+
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.sql.DataSource;
+
+import lab.s2jh.core.entity.BasePooledEntity;
+
+import org.hibernate.ejb.HibernateEntityManagerFactory;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link BasePooledEntity} 主键分配表初始化：应用启动时确保每个池化主键实体表在主键分配表中的下一主键值大于实体表已有最大主键，
+ * 用于由数据库自增主键切换为池化主键的已有数据表，避免新分配主键与已有数据冲突；空数据表则由Hibernate从1开始分配
+ */
+@Component
+public class PooledIdGeneratorInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledIdGeneratorInitializer.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void initialize() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (ClassMetadata classMetadata : ((HibernateEntityManagerFactory) entityManagerFactory).getSessionFactory()
+                .getAllClassMetadata().values()) {
+            Class<?> mappedClass = classMetadata.getMappedClass();
+            if (mappedClass == null || !BasePooledEntity.class.isAssignableFrom(mappedClass)
+                    || !(classMetadata instanceof AbstractEntityPersister)) {
+                continue;
+            }
+            AbstractEntityPersister persister = (AbstractEntityPersister) classMetadata;
+            try {
+                initialize(jdbcTemplate, persister.getTableName(), persister.getIdentifierColumnNames()[0]);
+            } catch (DataAccessException e) {
+                //主键分配表或实体表尚未创建等情况，由Hibernate在首次分配主键时按初始值处理
+                logger.warn("Skipped pooled id generator initialization for table: " + persister.getTableName(), e);
+            }
+        }
+    }
+
+    private void initialize(JdbcTemplate jdbcTemplate, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        //pooled优化器把主键分配表记录值视为已申请主键段的上限，即从(记录值-段大小)开始分配
+        long nextVal = maxId + 1 + Long.parseLong(BasePooledEntity.ID_GENERATOR_INCREMENT_SIZE);
+        List<Long> values = jdbcTemplate.queryForList("select " + BasePooledEntity.ID_GENERATOR_VALUE_COLUMN
+                + " from " + BasePooledEntity.ID_GENERATOR_TABLE + " where "
+                + BasePooledEntity.ID_GENERATOR_SEGMENT_COLUMN + "=?", Long.class, table);
+        if (values.isEmpty()) {
+            logger.info("Initializing pooled id generator for table {} with next value {}", table, nextVal);
+            jdbcTemplate.update("insert into " + BasePooledEntity.ID_GENERATOR_TABLE + "("
+                    + BasePooledEntity.ID_GENERATOR_SEGMENT_COLUMN + "," + BasePooledEntity.ID_GENERATOR_VALUE_COLUMN
+                    + ") values (?,?)", table, nextVal);
+        } else if (values.get(0) < nextVal) {
+            logger.info("Advancing pooled id generator for table {} to next value {}", table, nextVal);
+            //附加条件避免集群多个节点同时启动时回退其他节点已推进的值
+            jdbcTemplate.update("update " + BasePooledEntity.ID_GENERATOR_TABLE + " set "
+                    + BasePooledEntity.ID_GENERATOR_VALUE_COLUMN + "=? where "
+                    + BasePooledEntity.ID_GENERATOR_SEGMENT_COLUMN + "=? and "
+                    + BasePooledEntity.ID_GENERATOR_VALUE_COLUMN + "<?", nextVal, table, nextVal);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package lab.s2jh.core.entity.id;
+
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.UUID;
+
+import lab.s2jh.core.util.UidUtils;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.type.Type;
+
+/**
+ * 按时间有序的UUID主键生成器，新数据主键总是追加在主键索引尾部
+ * 主键属性为String类型则生成36位标准字符串形式，为 {@link UUID} 类型则可配合uuid-binary类型以16字节紧凑形式存储
+ *
+ * @see UidUtils#timeOrderedUUID()
+ */
+public class TimeOrderedUUIDGenerator implements IdentifierGenerator, Configurable {
+
+    private boolean uuidType = false;
+
+    @Override
+    public void configure(Type type, Properties params, Dialect d) throws MappingException {
+        Class<?> returnedClass = type.getReturnedClass();
+        if (UUID.class.isAssignableFrom(returnedClass)) {
+            uuidType = true;
+        } else if (!String.class.isAssignableFrom(returnedClass)) {
+            throw new MappingException("Unsupported id type for TimeOrderedUUIDGenerator: " + returnedClass);
+        }
+    }
+
+    @Override
+    public Serializable generate(SessionImplementor session, Object object) throws HibernateException {
+        UUID uuid = UidUtils.timeOrderedUUID();
+        return uuidType ? uuid : uuid.toString();
+    }
+}
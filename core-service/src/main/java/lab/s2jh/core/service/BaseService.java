@@ -1,15 +1,27 @@
 package lab.s2jh.core.service;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -21,6 +33,7 @@ import javax.persistence.criteria.CriteriaBuilder.Case;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Path;
@@ -28,23 +41,39 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Selection;
 import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.PluralAttribute;
 
 import lab.s2jh.core.annotation.MetaData;
 import lab.s2jh.core.audit.envers.EntityRevision;
 import lab.s2jh.core.audit.envers.ExtDefaultRevisionEntity;
 import lab.s2jh.core.dao.BaseDao;
+import lab.s2jh.core.entity.annotation.FullTextIndexed;
+import lab.s2jh.core.entity.annotation.MonthlyPartition;
 import lab.s2jh.core.exception.ServiceException;
 import lab.s2jh.core.pagination.GroupPropertyFilter;
 import lab.s2jh.core.pagination.PropertyFilter;
 import lab.s2jh.core.pagination.PropertyFilter.MatchType;
+import lab.s2jh.core.util.DateUtils;
+import lab.s2jh.core.util.SqlUtils;
+import lab.s2jh.core.util.reflection.AccessorRegistry;
+import lab.s2jh.core.web.json.JsonPropertyIntrospector;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.lang3.reflect.MethodUtils;
 import org.hibernate.Criteria;
 import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.envers.AuditReaderFactory;
@@ -52,13 +81,19 @@ import org.hibernate.envers.RevisionType;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQuery;
 import org.hibernate.internal.CriteriaImpl;
+import org.hibernate.jdbc.Work;
 import org.hibernate.loader.criteria.CriteriaJoinWalker;
 import org.hibernate.loader.criteria.CriteriaQueryTranslator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.hibernate.persister.entity.OuterJoinLoadable;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.hibernate.service.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.transform.Transformers;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -67,26 +102,58 @@ import org.springframework.data.domain.Persistable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Order;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 @Transactional
 public abstract class BaseService<T extends Persistable<? extends Serializable>, ID extends Serializable> {
 
     private final Logger logger = LoggerFactory.getLogger(BaseService.class);
 
+    /** 关联对象批量预加载单次IN查询最大主键数量 */
+    private static final int PRELOAD_BATCH_SIZE = 500;
+
+    /** 游标方式查询每次从数据库读取的行数 */
+    private static final int SCROLL_FETCH_SIZE = 500;
+
+    /** 已完成历史数据分区属性补全的按月分区实体，补全之前分区条件需兼容分区属性为空的历史数据 */
+    private static final Set<Class<?>> PARTITION_KEYS_FILLED = Collections
+            .newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+
     /** 泛型对应的Class定义 */
     protected Class<T> entityClass;
 
     @PersistenceContext
     protected EntityManager entityManager;
 
+    @Autowired(required = false)
+    private QueryResultCache queryResultCache;
+
+    @Autowired(required = false)
+    private FullTextIndexService fullTextIndexService;
+
     /** 子类设置具体的DAO对象实例 */
     abstract protected BaseDao<T, ID> getEntityDao();
 
+    /**
+     * 是否启用 {@link QueryResultCache} 应用级查询结果缓存，默认不启用
+     * 对于查询频繁而变更相对较少的数据，子类可覆写返回true以启用缓存：
+     * 动态条件查询只缓存主键集合及总记录数，命中后基于主键重新加载实体对象（可充分利用二级缓存）
+     * 注意：启用缓存的子类如果覆写了查询条件组装逻辑，需确保相同查询参数下查询条件一致（如不能依赖当前登录用户信息）
+     * 
+     * @return
+     */
+    protected boolean isQueryResultCacheable() {
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     public BaseService() {
         super();
@@ -134,7 +201,12 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
         } else {
             preUpdate(entity);
         }
-        return getEntityDao().save(entity);
+        T saved = getEntityDao().save(entity);
+        evictQueryResultCache(entityClass, saved.getId());
+        if (fullTextIndexService != null) {
+            fullTextIndexService.update(entityClass, saved);
+        }
+        return saved;
     }
 
     /**
@@ -182,7 +254,7 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
         if (initLazyPropertyNames != null && initLazyPropertyNames.length > 0) {
             for (String name : initLazyPropertyNames) {
                 try {
-                    Object propValue = MethodUtils.invokeMethod(entity, "get" + StringUtils.capitalize(name));
+                    Object propValue = AccessorRegistry.getProperty(entity, name);
                     if (propValue != null && propValue instanceof Collection<?>) {
                         ((Collection<?>) propValue).size();
                     } else if (propValue != null && propValue instanceof Persistable<?>) {
@@ -224,6 +296,10 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
      *            待操作数据
      */
     public void delete(T entity) {
+        evictQueryResultCache(entityClass, entity.getId());
+        if (fullTextIndexService != null) {
+            fullTextIndexService.remove(entityClass, entity.getId());
+        }
         getEntityDao().delete(entity);
     }
 
@@ -345,11 +421,58 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
      * @return
      */
     @Transactional(readOnly = true)
-    public long count(GroupPropertyFilter groupPropertyFilter) {
+    public long count(final GroupPropertyFilter groupPropertyFilter) {
+        if (isQueryResultCacheEnabled()) {
+            return queryResultCache.get(entityClass, "count:" + buildQueryCacheKey(groupPropertyFilter, null),
+                    buildQueryCacheTags(groupPropertyFilter), new Callable<Long>() {
+                        @Override
+                        public Long call() {
+                            return getEntityDao().count(buildSpecification(groupPropertyFilter));
+                        }
+                    });
+        }
         Specification<T> spec = buildSpecification(groupPropertyFilter);
         return getEntityDao().count(spec);
     }
 
+    /**
+     * 基于查询条件判断是否存在数据，只查询主键并且最多返回一条记录，不加载实体对象，一般用于唯一性校验
+     * 
+     * @param groupPropertyFilter 查询条件
+     * @param excludeId 需要排除的主键，一般为当前编辑数据主键，为空表示不排除
+     * @return 存在符合条件数据返回true
+     */
+    @Transactional(readOnly = true)
+    public boolean exists(final GroupPropertyFilter groupPropertyFilter, final ID excludeId) {
+        if (isQueryResultCacheEnabled()) {
+            return queryResultCache.get(entityClass,
+                    "exists:" + excludeId + ":" + buildQueryCacheKey(groupPropertyFilter, null),
+                    buildQueryCacheTags(groupPropertyFilter), new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                            return doExists(groupPropertyFilter, excludeId);
+                        }
+                    });
+        }
+        return doExists(groupPropertyFilter, excludeId);
+    }
+
+    private boolean doExists(GroupPropertyFilter groupPropertyFilter, ID excludeId) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> criteriaQuery = criteriaBuilder.createQuery();
+        Root<T> root = criteriaQuery.from(entityClass);
+        criteriaQuery.select(root.get("id"));
+        Predicate where = buildPredicatesFromFilters(groupPropertyFilter, root, criteriaQuery, criteriaBuilder);
+        if (excludeId != null) {
+            Predicate excludePredicate = criteriaBuilder.notEqual(root.get("id"), excludeId);
+            where = where == null ? excludePredicate : criteriaBuilder.and(where, excludePredicate);
+        }
+        if (where != null) {
+            criteriaQuery.where(where);
+        }
+        return !entityManager.createQuery(criteriaQuery).setMaxResults(1).getResultList().isEmpty();
+    }
+
     /**
      * 基于动态组合条件对象查询数据集合
      * 
@@ -358,8 +481,7 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
      */
     @Transactional(readOnly = true)
     public List<T> findByFilters(GroupPropertyFilter groupPropertyFilter) {
-        Specification<T> spec = buildSpecification(groupPropertyFilter);
-        return getEntityDao().findAll(spec);
+        return findByFilters(groupPropertyFilter, null);
     }
 
     /**
@@ -370,8 +492,18 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
      * @return
      */
     @Transactional(readOnly = true)
-    public List<T> findByFilters(GroupPropertyFilter groupPropertyFilter, Sort sort) {
-        Specification<T> spec = buildSpecification(groupPropertyFilter);
+    public List<T> findByFilters(GroupPropertyFilter groupPropertyFilter, final Sort sort) {
+        final Specification<T> spec = buildSpecification(groupPropertyFilter);
+        if (isQueryResultCacheEnabled()) {
+            List<ID> ids = queryResultCache.get(entityClass, "list:" + buildQueryCacheKey(groupPropertyFilter, sort),
+                    buildQueryCacheTags(groupPropertyFilter), new Callable<List<ID>>() {
+                        @Override
+                        public List<ID> call() {
+                            return extractIds(getEntityDao().findAll(spec, sort));
+                        }
+                    });
+            return findAllInOrder(ids);
+        }
         return getEntityDao().findAll(spec, sort);
     }
 
@@ -403,11 +535,341 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
      * @return
      */
     @Transactional(readOnly = true)
-    public Page<T> findByPage(GroupPropertyFilter groupPropertyFilter, Pageable pageable) {
-        Specification<T> specifications = buildSpecification(groupPropertyFilter);
+    public Page<T> findByPage(GroupPropertyFilter groupPropertyFilter, final Pageable pageable) {
+        final Specification<T> specifications = buildSpecification(groupPropertyFilter);
+        if (isQueryResultCacheEnabled()) {
+            String key = "page:" + pageable.getPageNumber() + "," + pageable.getPageSize() + ":"
+                    + buildQueryCacheKey(groupPropertyFilter, pageable.getSort());
+            Page<ID> idPage = queryResultCache.get(entityClass, key, buildQueryCacheTags(groupPropertyFilter),
+                    new Callable<Page<ID>>() {
+                        @Override
+                        public Page<ID> call() {
+                            Page<T> page = getEntityDao().findAll(specifications, pageable);
+                            return new PageImpl<ID>(extractIds(page.getContent()), pageable, page.getTotalElements());
+                        }
+                    });
+            return new PageImpl<T>(findAllInOrder(idPage.getContent()), pageable, idPage.getTotalElements());
+        }
         return getEntityDao().findAll(specifications, pageable);
     }
 
+    /**
+     * 批量预加载实体集合中单值关联(ManyToOne/OneToOne)对象
+     * 表格数据JSON序列化输出关联对象display等属性时，每个未初始化的关联代理对象都会各自触发一次SQL查询；
+     * 在序列化之前先收集集合中所有未初始化关联代理对象主键，按关联实体类型以IN查询批量加载到当前持久化上下文，
+     * 代理对象随即直接从持久化上下文初始化，使整页数据序列化的查询次数只与关联类型数量相关而与数据行数无关
+     * 常规JSON序列化不输出的关联属性（如@JsonIgnore注解或类级别定义不可见）不做预加载处理
+     * 
+     * @param entities 实体对象集合，一般为分页查询当前页数据
+     */
+    @Transactional(readOnly = true)
+    public void preloadAssociations(Collection<T> entities) {
+        if (CollectionUtils.isEmpty(entities)) {
+            return;
+        }
+        Map<Class<?>, Set<Serializable>> associationIds = Maps.newHashMap();
+        List<LazyInitializer> lazyInitializers = Lists.newArrayList();
+        for (Attribute<?, ?> attribute : entityManager.getMetamodel().entity(entityClass).getSingularAttributes()) {
+            if (!attribute.isAssociation()) {
+                continue;
+            }
+            Method readMethod = AccessorRegistry.getReadMethod(entityClass, attribute.getName());
+            if (readMethod == null || !JsonPropertyIntrospector.isSerializable(entityClass, readMethod)) {
+                continue;
+            }
+            for (T entity : entities) {
+                Object value = AccessorRegistry.invoke(readMethod, entity);
+                if (value instanceof HibernateProxy) {
+                    LazyInitializer lazyInitializer = ((HibernateProxy) value).getHibernateLazyInitializer();
+                    if (lazyInitializer.isUninitialized()) {
+                        Set<Serializable> ids = associationIds.get(lazyInitializer.getPersistentClass());
+                        if (ids == null) {
+                            ids = Sets.newHashSet();
+                            associationIds.put(lazyInitializer.getPersistentClass(), ids);
+                        }
+                        ids.add(lazyInitializer.getIdentifier());
+                        lazyInitializers.add(lazyInitializer);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<Class<?>, Set<Serializable>> me : associationIds.entrySet()) {
+            String jpql = "select e from " + me.getKey().getName() + " e where e.id in (:ids)";
+            for (List<Serializable> ids : Lists.partition(Lists.newArrayList(me.getValue()), PRELOAD_BATCH_SIZE)) {
+                entityManager.createQuery(jpql).setParameter("ids", ids).getResultList();
+            }
+        }
+        //关联对象已加载到持久化上下文，代理对象初始化不再产生查询
+        for (LazyInitializer lazyInitializer : lazyInitializers) {
+            lazyInitializer.initialize();
+        }
+    }
+
+    /**
+     * 基于动态组合条件对象和分页(含排序)对象查询指定属性集合数据
+     * 与 {@link #findByPage(GroupPropertyFilter, Pageable)} 返回完整实体对象不同，只以Tuple投影方式查询所需属性列
+     * 避免无用字段查询和Hibernate实体对象初始化及脏数据检查开销，主要用于表格组件只显示少量列的场景
+     * 
+     * @param groupPropertyFilter 过滤参数对象
+     * @param pageable 分页排序参数对象
+     * @param properties 属性集合，支持以点号分隔的关联属性如commodity.code，关联对象以left join方式关联
+     *            非持久化属性（如@Transient注解的display）及常规JSON序列化不输出的属性会被忽略；主键id属性始终返回
+     * @return 以属性路径嵌套组装的Map结构的集合分页对象，如commodity.code转换为{commodity:{code:xxx}}
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findByPageProjection(GroupPropertyFilter groupPropertyFilter,
+            Pageable pageable, String... properties) {
+        List<String> validProperties = Lists.newArrayList();
+        TypedQuery<Tuple> query = buildProjectionQuery(groupPropertyFilter,
+                pageable == null ? null : pageable.getSort(), properties, validProperties);
+        if (pageable != null) {
+            query.setFirstResult(pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Map<String, Object>> mapDatas = Lists.newArrayList();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> data = Maps.newHashMap();
+            for (int i = 0; i < validProperties.size(); i++) {
+                putNestedValue(data, validProperties.get(i), tuple.get(i));
+            }
+            mapDatas.add(data);
+        }
+
+        long total = mapDatas.size();
+        if (pageable != null && (pageable.getOffset() > 0 || mapDatas.size() >= pageable.getPageSize())) {
+            //投影查询已在当前事务中建立读快照，不再经过查询结果缓存
+            total = getEntityDao().count(buildSpecification(groupPropertyFilter));
+        }
+        return new PageImpl<Map<String, Object>>(mapDatas, pageable, total);
+    }
+
+    /**
+     * 下拉框等选项数据，以投影方式只查询主键及显示属性列，不加载实体对象，也就不会触发关联对象延迟加载
+     * 启用查询结果缓存时按实体类型缓存，实体数据写入后自动失效
+     * 
+     * @param groupPropertyFilter 过滤参数对象
+     * @param sort 排序参数对象
+     * @param limit 最大返回记录数
+     * @param displayProperties 显示属性集合，规则同 {@link #findByPageProjection(GroupPropertyFilter, Pageable, String...)}；
+     *            各属性值以空格连接作为显示文本，空值忽略
+     * @return {id:xxx,display:xxx}结构的Map集合
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findSelectOptions(final GroupPropertyFilter groupPropertyFilter,
+            final Sort sort, final int limit, final String... displayProperties) {
+        if (isQueryResultCacheEnabled()) {
+            String key = "options:" + limit + ":" + StringUtils.join(displayProperties, ",") + ":"
+                    + buildQueryCacheKey(groupPropertyFilter, sort);
+            return queryResultCache.get(entityClass, key, buildQueryCacheTags(groupPropertyFilter),
+                    new Callable<List<Map<String, Object>>>() {
+                        @Override
+                        public List<Map<String, Object>> call() {
+                            return doFindSelectOptions(groupPropertyFilter, sort, limit, displayProperties);
+                        }
+                    });
+        }
+        return doFindSelectOptions(groupPropertyFilter, sort, limit, displayProperties);
+    }
+
+    private List<Map<String, Object>> doFindSelectOptions(GroupPropertyFilter groupPropertyFilter, Sort sort,
+            int limit, String[] displayProperties) {
+        List<String> validProperties = Lists.newArrayList();
+        TypedQuery<Tuple> query = buildProjectionQuery(groupPropertyFilter, sort, displayProperties, validProperties);
+        query.setMaxResults(limit);
+        List<Map<String, Object>> options = Lists.newArrayList();
+        for (Tuple tuple : query.getResultList()) {
+            List<Object> displayValues = Lists.newArrayList();
+            for (int i = 1; i < validProperties.size(); i++) {
+                Object value = tuple.get(i);
+                if (value != null) {
+                    displayValues.add(value);
+                }
+            }
+            Map<String, Object> option = Maps.newHashMap();
+            option.put("id", tuple.get(0));
+            option.put("display", StringUtils.join(displayValues, " "));
+            options.add(Collections.unmodifiableMap(option));
+        }
+        return Collections.unmodifiableList(options);
+    }
+
+    /**
+     * 投影查询逐行回调处理接口
+     */
+    public static interface ProjectionRowHandler {
+
+        /**
+         * 查询执行前回调有效的属性列表，行数据数组与之顺序对应
+         */
+        void handleHeader(List<String> properties) throws IOException;
+
+        void handleRow(Object[] values) throws IOException;
+    }
+
+    /**
+     * 基于动态组合条件对象以投影方式查询指定属性集合数据，以数据库游标方式逐行回调处理，不在内存中组装结果集合
+     * 主要用于大数据量导出等场景，处理过程内存占用与数据量无关
+     * MySQL驱动只有fetchSize为Integer.MIN_VALUE时才逐行流式读取，否则会一次读入全部数据，因此按数据库方言设置fetchSize；
+     * 流式读取期间同一连接不能执行其他查询，回调处理中不可再访问数据库
+     * 
+     * @param groupPropertyFilter 过滤参数对象
+     * @param sort 排序参数对象
+     * @param properties 属性集合，规则同 {@link #findByPageProjection(GroupPropertyFilter, Pageable, String...)}；
+     *            未提供则取实体全部非集合类型的持久化属性
+     * @param handler 逐行回调处理
+     */
+    @Transactional(readOnly = true)
+    public void scrollByProjection(GroupPropertyFilter groupPropertyFilter, Sort sort, String[] properties,
+            ProjectionRowHandler handler) {
+        if (properties == null || properties.length == 0) {
+            List<String> attributeNames = Lists.newArrayList();
+            for (Attribute<?, ?> attribute : entityManager.getMetamodel().managedType(entityClass).getAttributes()) {
+                if (!attribute.isCollection()) {
+                    attributeNames.add(attribute.getName());
+                }
+            }
+            properties = attributeNames.toArray(new String[attributeNames.size()]);
+        }
+        List<String> validProperties = Lists.newArrayList();
+        TypedQuery<Tuple> query = buildProjectionQuery(groupPropertyFilter, sort, properties, validProperties);
+        org.hibernate.Query hibernateQuery = query.unwrap(org.hibernate.Query.class);
+        hibernateQuery.setFetchSize(isMySQLDialect() ? Integer.MIN_VALUE : SCROLL_FETCH_SIZE);
+        hibernateQuery.setReadOnly(true);
+        ScrollableResults results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            handler.handleHeader(validProperties);
+            while (results.next()) {
+                handler.handleRow(results.get());
+            }
+        } catch (IOException e) {
+            throw new ServiceException(e.getMessage(), e);
+        } finally {
+            results.close();
+        }
+    }
+
+    /**
+     * 构建投影查询对象
+     * @param validProperties 输出参数，按查询列顺序回填有效的属性列表
+     */
+    private TypedQuery<Tuple> buildProjectionQuery(GroupPropertyFilter groupPropertyFilter, Sort sort,
+            String[] properties, List<String> validProperties) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<T> root = criteriaQuery.from(entityClass);
+
+        //同一关联路径共享一个left join，避免重复关联
+        Map<String, From<?, ?>> joins = Maps.newHashMap();
+        List<String> selectProperties = Lists.newArrayList("id");
+        for (String property : properties) {
+            property = property.trim();
+            if (StringUtils.isNotBlank(property) && !selectProperties.contains(property)) {
+                selectProperties.add(property);
+            }
+        }
+        List<Selection<?>> selections = Lists.newArrayList();
+        for (String property : selectProperties) {
+            Path<?> path = buildProjectionPath(root, property, joins);
+            if (path == null) {
+                logger.debug("Skip invalid projection property: {}.{}", entityClass.getSimpleName(), property);
+                continue;
+            }
+            path.alias("p" + validProperties.size());
+            validProperties.add(property);
+            selections.add(path);
+        }
+        criteriaQuery.multiselect(selections);
+
+        Predicate where = buildPredicatesFromFilters(groupPropertyFilter, root, criteriaQuery, criteriaBuilder);
+        if (where != null) {
+            criteriaQuery.where(where);
+        }
+
+        if (sort != null) {
+            List<javax.persistence.criteria.Order> jpaOrders = Lists.newArrayList();
+            for (Iterator<Order> orders = sort.iterator(); orders.hasNext();) {
+                Order order = orders.next();
+                Path<?> path = buildProjectionPath(root, order.getProperty(), joins);
+                if (path == null) {
+                    continue;
+                }
+                jpaOrders.add(order.isAscending() ? criteriaBuilder.asc(path) : criteriaBuilder.desc(path));
+            }
+            criteriaQuery.orderBy(jpaOrders);
+        }
+
+        return entityManager.createQuery(criteriaQuery);
+    }
+
+    /**
+     * 基于属性路径构建投影查询Path对象，中间关联对象以left join方式关联
+     * @return 如果属性不是有效的持久化属性或常规JSON序列化不输出（如@JsonIgnore注解或类级别定义不可见），则返回null
+     */
+    private Path<?> buildProjectionPath(Root<T> root, String property, Map<String, From<?, ?>> joins) {
+        String[] names = StringUtils.split(property, ".");
+        Metamodel metamodel = entityManager.getMetamodel();
+        ManagedType<?> managedType = metamodel.managedType(entityClass);
+        Class<?> ownerClass = entityClass;
+        From<?, ?> from = root;
+        try {
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                Attribute<?, ?> attribute = managedType.getAttribute(name);
+                //与常规JSON输出的属性范围保持一致，不输出的属性不允许投影查询
+                Method getMethod = AccessorRegistry.getReadMethod(ownerClass, name);
+                if (getMethod == null || !JsonPropertyIntrospector.isSerializable(ownerClass, getMethod)
+                        || attribute.isCollection()) {
+                    return null;
+                }
+                if (i == names.length - 1) {
+                    //关联对象本身作为投影属性则只取其主键，避免关联对象查询初始化
+                    if (attribute.isAssociation()) {
+                        return getOrCreateJoin(from, property, name, joins).get("id");
+                    }
+                    return from.get(name);
+                }
+                if (!attribute.isAssociation()) {
+                    return null;
+                }
+                String joinPath = StringUtils.join(names, ".", 0, i + 1);
+                from = getOrCreateJoin(from, joinPath, name, joins);
+                ownerClass = attribute.getJavaType();
+                managedType = metamodel.managedType(ownerClass);
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private From<?, ?> getOrCreateJoin(From<?, ?> from, String joinPath, String name, Map<String, From<?, ?>> joins) {
+        From<?, ?> join = joins.get(joinPath);
+        if (join == null) {
+            join = from.join(name, JoinType.LEFT);
+            joins.put(joinPath, join);
+        }
+        return join;
+    }
+
+    /**
+     * 把a.b.c形式属性值按照嵌套Map结构设置，便于前端以相同属性路径获取数据
+     */
+    @SuppressWarnings("unchecked")
+    private void putNestedValue(Map<String, Object> data, String property, Object value) {
+        String[] names = StringUtils.split(property, ".");
+        Map<String, Object> current = data;
+        for (int i = 0; i < names.length - 1; i++) {
+            Object child = current.get(names[i]);
+            if (!(child instanceof Map)) {
+                child = Maps.newHashMap();
+                current.put(names[i], child);
+            }
+            current = (Map<String, Object>) child;
+        }
+        current.put(names[names.length - 1], value);
+    }
+
     public String toSql(Criteria criteria) {
         CriteriaImpl criteriaImpl = (CriteriaImpl) criteria;
         SessionImplementor session = criteriaImpl.getSession();
@@ -521,7 +983,7 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
         CriteriaQuery<Tuple> select = criteriaQuery.multiselect(selectExpressions);
 
         //基于前端动态条件对象动态where条件组装
-        Predicate where = buildPredicatesFromFilters(groupFilter, root, criteriaQuery, criteriaBuilder, false);
+        Predicate where = buildPredicatesFromFilters(groupFilter, root, criteriaQuery, criteriaBuilder);
         if (where != null) {
             select.where(where);
         }
@@ -617,6 +1079,35 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
      */
     @Transactional(readOnly = true)
     public Page<Map> findByPageNativeSQL(Pageable pageable, String sql, String orderby) {
+        //对于支持窗口函数的数据库，在分页查询中直接追加count(*) over()单次查询同时获取总记录数
+        if (isWindowCountSupported() && SqlUtils.isWindowCountApplicable(sql)) {
+            String windowSql = SqlUtils.appendWindowCount(sql, NATIVE_SQL_WINDOW_COUNT_ALIAS);
+            Query query = entityManager.createNativeQuery(StringUtils.isNotBlank(orderby) ? windowSql + " " + orderby
+                    : windowSql);
+            query.unwrap(SQLQuery.class).setResultTransformer(Transformers.ALIAS_TO_ENTITY_MAP);
+            query.setFirstResult(pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+            List<Map> list = query.getResultList();
+            if (list.size() > 0) {
+                Object count = null;
+                for (Map row : list) {
+                    //不同数据库返回的别名大小写不一致，因此忽略大小写移除追加的总记录数列
+                    for (Iterator<?> iter = row.keySet().iterator(); iter.hasNext();) {
+                        Object key = iter.next();
+                        if (NATIVE_SQL_WINDOW_COUNT_ALIAS.equalsIgnoreCase(String.valueOf(key))) {
+                            count = row.get(key);
+                            iter.remove();
+                        }
+                    }
+                }
+                return new PageImpl(list, pageable, Long.valueOf(count.toString()));
+            }
+            //当前页没有数据时无法获取窗口统计值，如果不是首页则继续执行count查询
+            if (pageable.getOffset() == 0) {
+                return new PageImpl(list, pageable, 0);
+            }
+        }
+
         Query query = null;
         if (StringUtils.isNotBlank(orderby)) {
             query = entityManager.createNativeQuery(sql + " " + orderby);
@@ -624,13 +1115,229 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
             query = entityManager.createNativeQuery(sql);
         }
         query.unwrap(SQLQuery.class).setResultTransformer(Transformers.ALIAS_TO_ENTITY_MAP);
-        Query queryCount = entityManager.createNativeQuery("select count(*) from (" + sql + ") cnt");
+        //基于原始SQL推导count语句：移除排序，简单查询直接替换select列表，避免数据库无效计算
+        Query queryCount = entityManager.createNativeQuery(SqlUtils.buildCountSql(sql));
         query.setFirstResult(pageable.getOffset());
         query.setMaxResults(pageable.getPageSize());
         Object count = queryCount.getSingleResult();
         return new PageImpl(query.getResultList(), pageable, Long.valueOf(count.toString()));
     }
 
+    /** Native SQL窗口函数方式统计总记录数的列别名 */
+    private static final String NATIVE_SQL_WINDOW_COUNT_ALIAS = "s2jh_total_count_";
+
+    /**
+     * 判断当前数据库方言是否为MySQL，MySQL驱动需要特殊的fetchSize设置才会以流式方式读取数据
+     */
+    private boolean isMySQLDialect() {
+        Dialect dialect = ((SessionFactoryImplementor) entityManager.unwrap(Session.class).getSessionFactory())
+                .getDialect();
+        return dialect instanceof MySQLDialect;
+    }
+
+    /**
+     * 判断当前数据库方言是否支持count(*) over()窗口函数
+     * MySQL、H2等不支持窗口函数，SQLServer分页实现会改写select列表，因此只对Oracle和PostgreSQL启用
+     */
+    private boolean isWindowCountSupported() {
+        Dialect dialect = ((SessionFactoryImplementor) entityManager.unwrap(Session.class).getSessionFactory())
+                .getDialect();
+        return dialect instanceof Oracle8iDialect || dialect instanceof PostgreSQL81Dialect;
+    }
+
+    /**
+     * 通知 {@link QueryResultCache} 在当前事务提交后失效相关查询缓存
+     * 基于JPQL/SQL批量更新等绕过 {@link #save(Persistable)}、{@link #delete(Persistable)} 的数据变更，子类需自行调用此方法
+     * 
+     * @param clazz 变更数据实体类型
+     * @param ids 变更数据主键集合，用于失效限定主键范围的查询缓存；未提供则只失效实体类型相关查询缓存
+     */
+    protected void evictQueryResultCache(Class<?> clazz, Serializable... ids) {
+        if (queryResultCache != null) {
+            queryResultCache.invalidate(clazz, ids);
+        }
+    }
+
+    private boolean isQueryResultCacheEnabled() {
+        return queryResultCache != null && isQueryResultCacheable();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ID> extractIds(List<T> entities) {
+        List<ID> ids = Lists.newArrayListWithCapacity(entities.size());
+        for (T entity : entities) {
+            ids.add((ID) entity.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 基于主键集合加载实体对象并按照主键集合顺序返回，已被删除的数据直接忽略
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> findAllInOrder(List<ID> ids) {
+        if (ids.isEmpty()) {
+            return Lists.newArrayList();
+        }
+        Map<ID, T> entityMap = Maps.newHashMap();
+        for (T entity : findAll((ID[]) ids.toArray(new Serializable[ids.size()]))) {
+            entityMap.put((ID) entity.getId(), entity);
+        }
+        List<T> entities = Lists.newArrayListWithCapacity(ids.size());
+        for (ID id : ids) {
+            T entity = entityMap.get(id);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * 基于查询条件及排序组装查询缓存唯一标识
+     */
+    private String buildQueryCacheKey(GroupPropertyFilter groupPropertyFilter, Sort sort) {
+        StringBuilder sb = new StringBuilder();
+        appendQueryCacheKey(sb, groupPropertyFilter);
+        if (sort != null) {
+            sb.append(" sort:");
+            for (Order order : sort) {
+                sb.append(order.getProperty()).append(' ').append(order.getDirection()).append(',');
+            }
+        }
+        return sb.toString();
+    }
+
+    private void appendQueryCacheKey(StringBuilder sb, GroupPropertyFilter groupPropertyFilter) {
+        if (groupPropertyFilter == null) {
+            return;
+        }
+        sb.append(groupPropertyFilter.getGroupType()).append('(');
+        appendQueryCacheKey(sb, groupPropertyFilter.getFilters());
+        sb.append("force:");
+        appendQueryCacheKey(sb, groupPropertyFilter.getForceAndFilters());
+        for (GroupPropertyFilter group : groupPropertyFilter.getGroups()) {
+            appendQueryCacheKey(sb, group);
+        }
+        sb.append(')');
+    }
+
+    private void appendQueryCacheKey(StringBuilder sb, Collection<PropertyFilter> filters) {
+        for (PropertyFilter filter : filters) {
+            sb.append(filter.getMatchType()).append('_').append(StringUtils.join(filter.getPropertyNames(), "|"))
+                    .append('=');
+            Object value = filter.getMatchValue();
+            if (value instanceof Object[]) {
+                for (Object item : (Object[]) value) {
+                    appendQueryCacheKeyValue(sb, item);
+                    sb.append(',');
+                }
+            } else if (value instanceof Collection) {
+                for (Object item : (Collection<?>) value) {
+                    appendQueryCacheKeyValue(sb, item);
+                    sb.append(',');
+                }
+            } else if (value != null && value.getClass().isArray()) {
+                sb.append(ArrayUtils.toString(value));
+            } else {
+                appendQueryCacheKeyValue(sb, value);
+            }
+            sb.append(';');
+        }
+    }
+
+    private void appendQueryCacheKeyValue(StringBuilder sb, Object value) {
+        if (value instanceof Date) {
+            sb.append(((Date) value).getTime());
+        } else if (value instanceof Persistable) {
+            sb.append(((Persistable<?>) value).getId());
+        } else {
+            sb.append(value);
+        }
+    }
+
+    /**
+     * 组装查询缓存关联标签：
+     * 查询条件以AND方式限定了主键范围（EQ/IN id）则只关联相应主键区间标签，否则关联当前实体类型标签；
+     * 查询条件中关联属性路径涉及的实体类型同时作为关联标签，从而关联对象数据变更时也能失效相应查询缓存
+     */
+    private Set<String> buildQueryCacheTags(GroupPropertyFilter groupPropertyFilter) {
+        Set<String> tags = Sets.newHashSet();
+        Collection<Serializable> ids = findIdConstraint(groupPropertyFilter);
+        if (ids != null) {
+            for (Serializable id : ids) {
+                tags.add(queryResultCache.buildKeyRangeTag(entityClass, id));
+            }
+        } else {
+            tags.add(queryResultCache.buildTypeTag(entityClass));
+        }
+        collectQueryCacheTags(tags, groupPropertyFilter);
+        return tags;
+    }
+
+    private Collection<Serializable> findIdConstraint(GroupPropertyFilter groupPropertyFilter) {
+        if (groupPropertyFilter == null) {
+            return null;
+        }
+        for (PropertyFilter filter : collectAndFilters(groupPropertyFilter)) {
+            if (filter.hasMultiProperties() || !"id".equals(filter.getPropertyName())) {
+                continue;
+            }
+            Object value = filter.getMatchValue();
+            if (MatchType.EQ.equals(filter.getMatchType()) && value instanceof Serializable) {
+                return Lists.newArrayList((Serializable) value);
+            }
+            if (MatchType.IN.equals(filter.getMatchType())) {
+                List<Serializable> ids = Lists.newArrayList();
+                Collection<?> values = value instanceof Object[] ? Arrays.asList((Object[]) value)
+                        : (value instanceof Collection ? (Collection<?>) value : null);
+                if (values == null) {
+                    continue;
+                }
+                for (Object item : values) {
+                    ids.add((Serializable) item);
+                }
+                return ids;
+            }
+        }
+        return null;
+    }
+
+    private void collectQueryCacheTags(Set<String> tags, GroupPropertyFilter groupPropertyFilter) {
+        if (groupPropertyFilter == null) {
+            return;
+        }
+        List<PropertyFilter> filters = Lists.newArrayList(groupPropertyFilter.getFilters());
+        filters.addAll(groupPropertyFilter.getForceAndFilters());
+        Metamodel metamodel = entityManager.getMetamodel();
+        for (PropertyFilter filter : filters) {
+            if (filter.getSubQueryCollectionPropetyType() != null) {
+                tags.add(queryResultCache.buildTypeTag(filter.getSubQueryCollectionPropetyType()));
+            }
+            for (String propertyName : filter.getPropertyNames()) {
+                ManagedType<?> managedType = metamodel.managedType(entityClass);
+                for (String name : StringUtils.split(propertyName, ".")) {
+                    Attribute<?, ?> attribute;
+                    try {
+                        attribute = managedType.getAttribute(name);
+                    } catch (IllegalArgumentException e) {
+                        break;
+                    }
+                    Class<?> javaType = attribute instanceof PluralAttribute ? ((PluralAttribute<?, ?, ?>) attribute)
+                            .getElementType().getJavaType() : attribute.getJavaType();
+                    if (!attribute.isAssociation()) {
+                        break;
+                    }
+                    tags.add(queryResultCache.buildTypeTag(javaType));
+                    managedType = metamodel.managedType(javaType);
+                }
+            }
+        }
+        for (GroupPropertyFilter group : groupPropertyFilter.getGroups()) {
+            collectQueryCacheTags(tags, group);
+        }
+    }
+
     /**
      * 基于JPA通用的查询条件count记录数据
      * 
@@ -673,8 +1380,8 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                 }
 
                 // Hack for Bug: https://jira.springsource.org/browse/DATAJPA-105
-                // 如果是在count计算总记录，则添加join；否则说明正常分页查询添加fetch
-                if (!Long.class.isAssignableFrom(query.getResultType())) {
+                // 如果是在count计算总记录或Tuple投影查询，则添加join；否则说明正常分页查询添加fetch
+                if (isFetchableQuery(query)) {
                     root.fetch(names[0], joinType);
                 } else {
                     root.join(names[0], joinType);
@@ -693,8 +1400,8 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                 }
 
                 // Hack for Bug: https://jira.springsource.org/browse/DATAJPA-105
-                // 如果是在count计算总记录，则添加join；否则说明正常分页查询添加fetch
-                if (!Long.class.isAssignableFrom(query.getResultType())) {
+                // 如果是在count计算总记录或Tuple投影查询，则添加join；否则说明正常分页查询添加fetch
+                if (isFetchableQuery(query)) {
                     Fetch fetch = root.fetch(names[0], joinTypes[0]);
                     for (int i = 1; i < names.length; i++) {
                         fetch.fetch(names[i], joinTypes[i]);
@@ -789,7 +1496,12 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
             }
             break;
         case CN:
-            predicate = builder.like(expression, "%" + matchValue + "%");
+            if (filter.getSubQueryCollectionPropetyType() == null) {
+                predicate = buildFullTextPredicate(propertyName, matchValue, root, builder);
+            }
+            if (predicate == null) {
+                predicate = builder.like(expression, "%" + matchValue + "%");
+            }
             break;
         case NC:
             predicate = builder.notLike(expression, "%" + matchValue + "%");
@@ -895,6 +1607,40 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
         return predicate;
     }
 
+    /**
+     * 对于 {@link FullTextIndexed} 标注属性的包含查询，基于内存全文索引查找匹配主键转换为主键IN查询，避免like全表扫描
+     * 
+     * @return 不符合全文索引查询条件则返回null，由调用方按照常规like查询处理
+     */
+    private Predicate buildFullTextPredicate(String propertyName, Object matchValue, Root<?> root,
+            CriteriaBuilder builder) {
+        if (fullTextIndexService == null || propertyName.indexOf(".") > -1) {
+            return null;
+        }
+        Set<Serializable> ids = fullTextIndexService.findIdsContaining(root.getJavaType(), propertyName,
+                String.valueOf(matchValue));
+        if (ids == null) {
+            return null;
+        }
+        if (ids.isEmpty()) {
+            return builder.disjunction();
+        }
+        return root.get("id").in(ids);
+    }
+
+    /**
+     * 判断查询是否可以追加fetch关联：count统计、Tuple投影及主键等标量查询的select中不包含ROOT实体对象，只能以join方式关联.
+     * 已指定select的按实际查询对象判断，否则（如Spring Data在构建条件之后才设置select）按查询结果类型判断
+     */
+    private boolean isFetchableQuery(CriteriaQuery<?> query) {
+        Selection<?> selection = query.getSelection();
+        if (selection != null) {
+            return query.getRoots().contains(selection);
+        }
+        Class<?> resultType = query.getResultType();
+        return !Long.class.isAssignableFrom(resultType) && !Tuple.class.isAssignableFrom(resultType);
+    }
+
     /**
      * 根据条件集合对象组装JPA规范条件查询集合对象，基类默认实现进行条件封装组合
      * 子类可以调用此方法在返回的List<Predicate>额外追加其他PropertyFilter不易表单的条件如exist条件处理等
@@ -947,7 +1693,97 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
 
     protected Predicate buildPredicatesFromFilters(GroupPropertyFilter groupPropertyFilter, Root root,
             CriteriaQuery<?> query, CriteriaBuilder builder) {
-        return buildPredicatesFromFilters(groupPropertyFilter, root, query, builder, false);
+        Predicate predicate = buildPredicatesFromFilters(groupPropertyFilter, root, query, builder, false);
+        return appendPartitionPredicate(groupPropertyFilter, root, builder, predicate);
+    }
+
+    /**
+     * 对于 {@link MonthlyPartition} 注解的按月分区实体，如果查询条件以AND方式限定了分区日期属性范围，
+     * 则追加对应的分区属性范围条件，从而数据库可以只扫描相关分区（或基于分区字段索引）
+     * 在 {@link #fillPartitionKeys()} 补全历史数据之前，分区属性为空的数据同时保留在查询范围内，避免历史数据被过滤掉
+     */
+    private Predicate appendPartitionPredicate(GroupPropertyFilter groupPropertyFilter, Root<?> root,
+            CriteriaBuilder builder, Predicate predicate) {
+        MonthlyPartition monthlyPartition = root.getJavaType().getAnnotation(MonthlyPartition.class);
+        if (monthlyPartition == null || groupPropertyFilter == null) {
+            return predicate;
+        }
+        Date from = null;
+        Date to = null;
+        for (PropertyFilter filter : collectAndFilters(groupPropertyFilter)) {
+            if (filter.hasMultiProperties() || !monthlyPartition.dateProperty().equals(filter.getPropertyName())) {
+                continue;
+            }
+            Object value = filter.getMatchValue();
+            switch (filter.getMatchType()) {
+            case BT:
+                if (value instanceof Object[] && ((Object[]) value).length == 2) {
+                    Object[] values = (Object[]) value;
+                    from = laterDate(from, values[0]);
+                    to = earlierDate(to, values[1]);
+                }
+                break;
+            case EQ:
+                from = laterDate(from, value);
+                to = earlierDate(to, value);
+                break;
+            case GT:
+            case GE:
+                from = laterDate(from, value);
+                break;
+            case LT:
+            case LE:
+                to = earlierDate(to, value);
+                break;
+            default:
+                break;
+            }
+        }
+        if (from == null && to == null) {
+            return predicate;
+        }
+
+        List<Predicate> rangePredicates = Lists.newArrayList();
+        Path<Integer> partitionPath = root.<Integer> get(monthlyPartition.partitionProperty());
+        if (from != null) {
+            rangePredicates.add(builder.greaterThanOrEqualTo(partitionPath, DateUtils.toYearMonth(from)));
+        }
+        if (to != null) {
+            rangePredicates.add(builder.lessThanOrEqualTo(partitionPath, DateUtils.toYearMonth(to)));
+        }
+        Predicate partitionPredicate = builder.and(rangePredicates.toArray(new Predicate[rangePredicates.size()]));
+        if (!PARTITION_KEYS_FILLED.contains(root.getJavaType())) {
+            partitionPredicate = builder.or(builder.isNull(partitionPath), partitionPredicate);
+        }
+        if (predicate == null) {
+            return partitionPredicate;
+        }
+        return builder.and(partitionPredicate, predicate);
+    }
+
+    private Date laterDate(Date current, Object value) {
+        if (!(value instanceof Date)) {
+            return current;
+        }
+        return current == null || ((Date) value).after(current) ? (Date) value : current;
+    }
+
+    private Date earlierDate(Date current, Object value) {
+        if (!(value instanceof Date)) {
+            return current;
+        }
+        return current == null || ((Date) value).before(current) ? (Date) value : current;
+    }
+
+    /**
+     * 提取与整体查询结果为AND关系的过滤条件集合：强制AND条件及AND组合类型的直接过滤条件
+     */
+    private List<PropertyFilter> collectAndFilters(GroupPropertyFilter groupPropertyFilter) {
+        List<PropertyFilter> andFilters = Lists.newArrayList(groupPropertyFilter.getForceAndFilters());
+        if (GroupPropertyFilter.GROUP_OPERATION_AND.equals(groupPropertyFilter.getGroupType())) {
+            andFilters.addAll(groupPropertyFilter.getFilters());
+        }
+        return andFilters;
     }
 
     protected Predicate buildPredicatesFromFilters(GroupPropertyFilter groupPropertyFilter, Root root,
@@ -1228,9 +2064,9 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
             String r2EntityPropertyName, R2OperationEnum op) {
         try {
             T entity = findOne(id);
-            List oldR2s = (List) FieldUtils.readDeclaredField(entity, r2PropertyName, true);
+            List oldR2s = (List) AccessorRegistry.readField(entity, r2PropertyName);
 
-            Field r2field = FieldUtils.getField(entityClass, r2PropertyName, true);
+            Field r2field = AccessorRegistry.getField(entityClass, r2PropertyName);
             Class r2Class = (Class) (((ParameterizedType) r2field.getGenericType()).getActualTypeArguments()[0]);
             Field entityField = null;
             Field[] fields = r2Class.getDeclaredFields();
@@ -1241,8 +2077,10 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                 }
             }
 
-            Field r2EntityField = FieldUtils.getField(r2Class, r2EntityPropertyName, true);
+            Field r2EntityField = AccessorRegistry.getField(r2Class, r2EntityPropertyName);
             Class r2EntityClass = r2EntityField.getType();
+            evictQueryResultCache(entityClass, id);
+            evictQueryResultCache(r2Class);
 
             if (R2OperationEnum.update.equals(op)) {
                 if (CollectionUtils.isEmpty(r2EntityIds) && !CollectionUtils.isEmpty(oldR2s)) {
@@ -1256,15 +2094,15 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                     Object r2Entity = entityManager.find(r2EntityClass, r2EntityId);
                     boolean tobeAdd = true;
                     for (Object r2 : oldR2s) {
-                        if (FieldUtils.readDeclaredField(r2, r2EntityPropertyName, true).equals(r2Entity)) {
+                        if (AccessorRegistry.readField(r2, r2EntityPropertyName).equals(r2Entity)) {
                             tobeAdd = false;
                             break;
                         }
                     }
                     if (tobeAdd) {
                         Object newR2 = r2Class.newInstance();
-                        FieldUtils.writeDeclaredField(newR2, r2EntityField.getName(), r2Entity, true);
-                        FieldUtils.writeDeclaredField(newR2, entityField.getName(), entity, true);
+                        AccessorRegistry.writeField(newR2, r2EntityField.getName(), r2Entity);
+                        AccessorRegistry.writeField(newR2, entityField.getName(), entity);
                         oldR2s.add(newR2);
                     }
                 }
@@ -1277,7 +2115,7 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                     boolean tobeDlete = true;
                     for (Serializable r2EntityId : r2EntityIds) {
                         Object r2Entity = entityManager.find(r2EntityClass, r2EntityId);
-                        if (FieldUtils.readDeclaredField(r2, r2EntityPropertyName, true).equals(r2Entity)) {
+                        if (AccessorRegistry.readField(r2, r2EntityPropertyName).equals(r2Entity)) {
                             tobeDlete = false;
                             break;
                         }
@@ -1296,7 +2134,7 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                     boolean tobeDlete = false;
                     for (Serializable r2EntityId : r2EntityIds) {
                         Object r2Entity = entityManager.find(r2EntityClass, r2EntityId);
-                        if (FieldUtils.readDeclaredField(r2, r2EntityPropertyName, true).equals(r2Entity)) {
+                        if (AccessorRegistry.readField(r2, r2EntityPropertyName).equals(r2Entity)) {
                             tobeDlete = true;
                             break;
                         }
@@ -1333,13 +2171,12 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
             String r2EntityPropertyName) {
         try {
             T entity = findOne(id);
-            List oldR2s = (List) MethodUtils.invokeExactMethod(entity, "get" + StringUtils.capitalize(r2PropertyName),
-                    null);
+            List oldR2s = (List) AccessorRegistry.getProperty(entity, r2PropertyName);
 
             if ((r2EntityIds == null || r2EntityIds.length == 0) && !CollectionUtils.isEmpty(oldR2s)) {
                 oldR2s.clear();
             } else {
-                Field r2field = FieldUtils.getField(entityClass, r2PropertyName, true);
+                Field r2field = AccessorRegistry.getField(entityClass, r2PropertyName);
                 Class r2Class = (Class) (((ParameterizedType) r2field.getGenericType()).getActualTypeArguments()[0]);
                 Field entityField = null;
                 Field[] fields = r2Class.getDeclaredFields();
@@ -1350,8 +2187,10 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                     }
                 }
 
-                Field r2EntityField = FieldUtils.getField(r2Class, r2EntityPropertyName, true);
+                Field r2EntityField = AccessorRegistry.getField(r2Class, r2EntityPropertyName);
                 Class r2EntityClass = r2EntityField.getType();
+                evictQueryResultCache(entityClass, id);
+                evictQueryResultCache(r2Class);
 
                 // 双循环处理需要删除关联的项目
                 List tobeDleteList = Lists.newArrayList();
@@ -1359,7 +2198,7 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                     boolean tobeDlete = true;
                     for (Serializable r2EntityId : r2EntityIds) {
                         Object r2Entity = entityManager.find(r2EntityClass, r2EntityId);
-                        if (FieldUtils.readDeclaredField(r2, r2EntityPropertyName, true).equals(r2Entity)) {
+                        if (AccessorRegistry.readField(r2, r2EntityPropertyName).equals(r2Entity)) {
                             tobeDlete = false;
                             break;
                         }
@@ -1375,15 +2214,15 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
                     Object r2Entity = entityManager.find(r2EntityClass, r2EntityId);
                     boolean tobeAdd = true;
                     for (Object r2 : oldR2s) {
-                        if (FieldUtils.readDeclaredField(r2, r2EntityPropertyName, true).equals(r2Entity)) {
+                        if (AccessorRegistry.readField(r2, r2EntityPropertyName).equals(r2Entity)) {
                             tobeAdd = false;
                             break;
                         }
                     }
                     if (tobeAdd) {
                         Object newR2 = r2Class.newInstance();
-                        FieldUtils.writeDeclaredField(newR2, r2EntityField.getName(), r2Entity, true);
-                        FieldUtils.writeDeclaredField(newR2, entityField.getName(), entity, true);
+                        AccessorRegistry.writeField(newR2, r2EntityField.getName(), r2Entity);
+                        AccessorRegistry.writeField(newR2, entityField.getName(), entity);
                         oldR2s.add(newR2);
                     }
                 }
@@ -1393,6 +2232,164 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
         }
     }
 
+    /**
+     * 归档按月分区实体指定月份的数据：数据转移到归档表（主表名+后缀，不存在则按主表结构自动创建）并从主表删除
+     * 只允许归档当前月份之前的已关闭期间数据，归档后的数据不再参与常规查询及红冲等业务处理
+     * 对于采用数据库原生分区的部署环境，也可以由DBA直接以分区交换/卸载方式处理
+     * 
+     * @param yearMonth yyyyMM格式年月，如201401
+     * @return 归档记录数
+     */
+    @Transactional
+    public int archivePartition(int yearMonth) {
+        MonthlyPartition monthlyPartition = entityClass.getAnnotation(MonthlyPartition.class);
+        Assert.notNull(monthlyPartition, "Not monthly partition entity: " + entityClass);
+        Validation.isTrue(yearMonth < DateUtils.toYearMonth(new Date()), "只能归档当前月份之前的已关闭期间数据");
+
+        AbstractEntityPersister persister = getEntityPersister();
+        String tableName = persister.getTableName();
+        String partitionColumn = persister.getPropertyColumnNames(monthlyPartition.partitionProperty())[0];
+        String archiveTableName = tableName + monthlyPartition.archiveTableSuffix();
+        if (!isTableExists(archiveTableName)) {
+            createArchiveTable(archiveTableName, tableName);
+        }
+
+        entityManager.flush();
+        int archived = entityManager
+                .createNativeQuery(
+                        "insert into " + archiveTableName + " select * from " + tableName + " where "
+                                + partitionColumn + "=?").setParameter(1, yearMonth).executeUpdate();
+        int deleted = entityManager
+                .createNativeQuery("delete from " + tableName + " where " + partitionColumn + "=?")
+                .setParameter(1, yearMonth).executeUpdate();
+        if (archived != deleted) {
+            throw new ServiceException("Archive partition count mismatch: archived=" + archived + ", deleted="
+                    + deleted);
+        }
+        logger.info("Archived {} rows of {} for partition {}", new Object[] { deleted, tableName, yearMonth });
+
+        entityManager.unwrap(Session.class).getSessionFactory().getCache().evictEntityRegion(entityClass);
+        evictQueryResultCache(entityClass);
+        return deleted;
+    }
+
+    /**
+     * 当前实体是否为 {@link MonthlyPartition} 注解的按月分区实体
+     */
+    public boolean isMonthlyPartitioned() {
+        return entityClass != null && entityClass.isAnnotationPresent(MonthlyPartition.class);
+    }
+
+    /**
+     * 查询指定月份之前存在数据的分区月份列表，用于按保留期限逐月调用 {@link #archivePartition(int)} 归档
+     * 
+     * @param yearMonth yyyyMM格式年月
+     * @return 升序排列的分区月份集合
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> findPartitionMonthsBefore(int yearMonth) {
+        MonthlyPartition monthlyPartition = entityClass.getAnnotation(MonthlyPartition.class);
+        Assert.notNull(monthlyPartition, "Not monthly partition entity: " + entityClass);
+        String partitionProperty = monthlyPartition.partitionProperty();
+        return entityManager
+                .createQuery(
+                        "select distinct e." + partitionProperty + " from " + entityClass.getName() + " e where e."
+                                + partitionProperty + " < :yearMonth order by e." + partitionProperty, Integer.class)
+                .setParameter("yearMonth", yearMonth).getResultList();
+    }
+
+    /**
+     * 基于分区日期属性批量补全分区属性为空的历史数据，用于已有数据表初次引入按月分区定义后的数据迁移
+     * 一般在应用启动时自动执行，事务提交后分区查询条件不再兼容分区属性为空的数据
+     * 
+     * @return 更新记录数
+     */
+    public int fillPartitionKeys() {
+        MonthlyPartition monthlyPartition = entityClass.getAnnotation(MonthlyPartition.class);
+        Assert.notNull(monthlyPartition, "Not monthly partition entity: " + entityClass);
+        AbstractEntityPersister persister = getEntityPersister();
+        String partitionColumn = persister.getPropertyColumnNames(monthlyPartition.partitionProperty())[0];
+        String dateColumn = persister.getPropertyColumnNames(monthlyPartition.dateProperty())[0];
+        int updated = entityManager.createNativeQuery(
+                "update " + persister.getTableName() + " set " + partitionColumn + "=extract(year from " + dateColumn
+                        + ")*100+extract(month from " + dateColumn + ") where " + partitionColumn + " is null")
+                .executeUpdate();
+        evictQueryResultCache(entityClass);
+        final Class<?> filledClass = entityClass;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    PARTITION_KEYS_FILLED.add(filledClass);
+                }
+            });
+        } else {
+            PARTITION_KEYS_FILLED.add(filledClass);
+        }
+        return updated;
+    }
+
+    /**
+     * MySQL/Oracle等数据库执行DDL语句会隐式提交当前事务，因此以独立连接创建归档表，
+     * 保证当前事务中后续的数据转移及删除依然原子执行
+     */
+    private void createArchiveTable(String archiveTableName, String tableName) {
+        logger.info("Creating archive table: {}", archiveTableName);
+        ConnectionProvider connectionProvider = ((SessionFactoryImplementor) entityManager.unwrap(Session.class)
+                .getSessionFactory()).getServiceRegistry().getService(ConnectionProvider.class);
+        Connection connection = null;
+        try {
+            connection = connectionProvider.getConnection();
+            Statement statement = connection.createStatement();
+            try {
+                statement.executeUpdate("create table " + archiveTableName + " as select * from " + tableName
+                        + " where 1=0");
+            } finally {
+                statement.close();
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new ServiceException("Create archive table failure: " + archiveTableName, e);
+        } finally {
+            if (connection != null) {
+                try {
+                    connectionProvider.closeConnection(connection);
+                } catch (SQLException e) {
+                    logger.warn("Close connection failure", e);
+                }
+            }
+        }
+    }
+
+    private AbstractEntityPersister getEntityPersister() {
+        return (AbstractEntityPersister) entityManager.unwrap(Session.class).getSessionFactory()
+                .getClassMetadata(entityClass);
+    }
+
+    private boolean isTableExists(final String tableName) {
+        final boolean[] exists = new boolean[] { false };
+        entityManager.unwrap(Session.class).doWork(new Work() {
+            @Override
+            public void execute(Connection connection) throws SQLException {
+                DatabaseMetaData metaData = connection.getMetaData();
+                for (String name : new String[] { tableName, tableName.toUpperCase(), tableName.toLowerCase() }) {
+                    ResultSet rs = metaData.getTables(null, null, name, new String[] { "TABLE" });
+                    try {
+                        if (rs.next()) {
+                            exists[0] = true;
+                            return;
+                        }
+                    } finally {
+                        rs.close();
+                    }
+                }
+            }
+        });
+        return exists[0];
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Transactional(readOnly = true)
     public Object findEntity(Class entityClass, Serializable id) {
@@ -1403,6 +2400,15 @@ public abstract class BaseService<T extends Persistable<? extends Serializable>,
         entityManager.detach(entity);
     }
 
+    /**
+     * 清空当前持久化上下文，托管对象全部转为游离状态并丢弃未flush的变更
+     * 主要用于OpenEntityManagerInView共享持久化上下文模式下，事务回滚之后避免已修改对象被后续事务重复获取或提交
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void clearPersistenceContext() {
+        entityManager.clear();
+    }
+
     /**
      * 基于Native SQL返回Map结构集合数据
      */
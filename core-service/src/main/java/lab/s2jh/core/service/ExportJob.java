@@ -0,0 +1,146 @@
+package lab.s2jh.core.service;
+
+import java.io.File;
+import java.util.Date;
+
+import lab.s2jh.core.annotation.MetaData;
+import lab.s2jh.core.web.json.DateTimeJsonSerializer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * 后台导出任务，由 {@link ExportJobService} 创建及维护状态
+ */
+public class ExportJob {
+
+    public static enum ExportJobStatusEnum {
+
+        @MetaData(value = "排队中")
+        PENDING,
+
+        @MetaData(value = "导出中")
+        RUNNING,
+
+        @MetaData(value = "已完成")
+        COMPLETED,
+
+        @MetaData(value = "失败")
+        FAILED;
+    }
+
+    private final String id;
+
+    private final String owner;
+
+    private final String key;
+
+    private final Date createdTime = new Date();
+
+    private volatile String fileName;
+
+    private volatile String contentType;
+
+    private volatile ExportJobStatusEnum status = ExportJobStatusEnum.PENDING;
+
+    private volatile String message;
+
+    private volatile File file;
+
+    private volatile long size;
+
+    private volatile Date completedTime;
+
+    ExportJob(String id, String owner, String key, String fileName, String contentType) {
+        this.id = id;
+        this.owner = owner;
+        this.key = key;
+        this.fileName = fileName;
+        this.contentType = contentType;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public String getOwner() {
+        return owner;
+    }
+
+    @JsonIgnore
+    public String getKey() {
+        return key;
+    }
+
+    @JsonSerialize(using = DateTimeJsonSerializer.class)
+    public Date getCreatedTime() {
+        return createdTime;
+    }
+
+    @MetaData(value = "下载文件名")
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * 导出处理过程中可根据实际导出数据调整下载文件名
+     */
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @JsonIgnore
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public ExportJobStatusEnum getStatus() {
+        return status;
+    }
+
+    @MetaData(value = "失败原因")
+    public String getMessage() {
+        return message;
+    }
+
+    @JsonIgnore
+    public File getFile() {
+        return file;
+    }
+
+    @MetaData(value = "文件字节数")
+    public long getSize() {
+        return size;
+    }
+
+    @JsonSerialize(using = DateTimeJsonSerializer.class)
+    public Date getCompletedTime() {
+        return completedTime;
+    }
+
+    public boolean isActive() {
+        return status == ExportJobStatusEnum.PENDING || status == ExportJobStatusEnum.RUNNING;
+    }
+
+    void running() {
+        this.status = ExportJobStatusEnum.RUNNING;
+    }
+
+    void completed(File file) {
+        this.file = file;
+        this.size = file.length();
+        this.completedTime = new Date();
+        this.status = ExportJobStatusEnum.COMPLETED;
+    }
+
+    void failed(String message) {
+        this.message = message;
+        this.completedTime = new Date();
+        this.status = ExportJobStatusEnum.FAILED;
+    }
+}
@@ -0,0 +1,254 @@
+package lab.s2jh.core.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import lab.s2jh.core.exception.ServiceException;
+import lab.s2jh.core.security.AuthContextHolder;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 后台导出任务队列
+ * 大数据量导出不再占用HTTP请求线程：提交后立即返回任务标识，由固定大小线程池按排队顺序执行，
+ * 导出结果写入临时文件，前端轮询任务状态并在完成后下载；保留时间过后自动清理任务及临时文件.
+ * <ul>
+ * <li>同一用户相同导出请求在排队或执行中重复提交，直接返回已有任务，避免用户等待不及反复点击导致重复导出</li>
+ * <li>排队数量超出上限直接拒绝提交，避免任务积压</li>
+ * <li>导出任务在只读事务中执行，支持导出处理过程中的延迟加载；并传递提交用户的安全上下文，便于基于当前用户的数据过滤</li>
+ * </ul>
+ * 任务状态只在当前应用实例内存中维护，集群部署需配置会话粘滞
+ */
+@Component
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    /**
+     * 导出处理回调，把导出数据写入给定的输出流
+     */
+    public static interface ExportTask {
+
+        void export(ExportJob job, OutputStream out) throws Exception;
+    }
+
+    private final ConcurrentMap<String, ExportJob> jobs = new ConcurrentHashMap<String, ExportJob>();
+
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolExecutor executor;
+
+    private File directory;
+
+    private int maxConcurrency = 2;
+
+    private int queueCapacity = 20;
+
+    private int retentionMinutes = 60;
+
+    private String directoryPath;
+
+    @Value("${export.job.max.concurrency:2}")
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Value("${export.job.queue.capacity:20}")
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Value("${export.job.retention.minutes:60}")
+    public void setRetentionMinutes(int retentionMinutes) {
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    @Value("${export.job.dir:}")
+    public void setDirectoryPath(String directoryPath) {
+        this.directoryPath = directoryPath;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (StringUtils.isBlank(directoryPath)) {
+            directory = new File(System.getProperty("java.io.tmpdir"), "s2jh-export");
+        } else {
+            directory = new File(directoryPath);
+        }
+        directory.mkdirs();
+        executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new CustomizableThreadFactory("ExportJob-"));
+        logger.info("Export job queue initialized: concurrency={}, queue={}, dir={}", new Object[] { maxConcurrency,
+                queueCapacity, directory.getAbsolutePath() });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+        for (ExportJob job : jobs.values()) {
+            deleteFile(job);
+        }
+        jobs.clear();
+    }
+
+    /**
+     * 提交导出任务，当前用户相同标识的任务正在排队或执行中则直接返回该任务
+     *
+     * @param key 导出请求标识，一般由导出功能及查询参数组成
+     * @param fileName 默认下载文件名
+     * @param contentType 下载文件类型
+     * @param task 导出处理回调，在后台线程执行，不可访问当前HTTP请求对象
+     * @return 导出任务
+     */
+    public synchronized ExportJob submit(String key, String fileName, String contentType, final ExportTask task) {
+        purgeExpiredJobs();
+        String owner = AuthContextHolder.getAuthUserPin();
+        for (ExportJob job : jobs.values()) {
+            if (job.isActive() && job.getOwner().equals(owner) && job.getKey().equals(key)) {
+                logger.debug("Reusing active export job {} for key: {}", job.getId(), key);
+                return job;
+            }
+        }
+        final ExportJob job = new ExportJob(UUID.randomUUID().toString(), owner, key, fileName, contentType);
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    SecurityContextHolder.setContext(securityContext);
+                    try {
+                        execute(job, task);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new ServiceException("当前排队导出任务过多，请稍后再试");
+        }
+        return job;
+    }
+
+    /**
+     * 获取当前用户的导出任务，不存在或非当前用户提交则返回null
+     */
+    public ExportJob findJob(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.getOwner().equals(AuthContextHolder.getAuthUserPin())) {
+            return null;
+        }
+        return job;
+    }
+
+    /**
+     * 当前用户的导出任务列表，按提交时间倒序
+     */
+    public List<ExportJob> findJobs() {
+        purgeExpiredJobs();
+        String owner = AuthContextHolder.getAuthUserPin();
+        List<ExportJob> ownerJobs = Lists.newArrayList();
+        for (ExportJob job : jobs.values()) {
+            if (job.getOwner().equals(owner)) {
+                ownerJobs.add(job);
+            }
+        }
+        Collections.sort(ownerJobs, new Comparator<ExportJob>() {
+            @Override
+            public int compare(ExportJob o1, ExportJob o2) {
+                return o2.getCreatedTime().compareTo(o1.getCreatedTime());
+            }
+        });
+        return ownerJobs;
+    }
+
+    private void execute(final ExportJob job, final ExportTask task) {
+        job.running();
+        long start = System.currentTimeMillis();
+        File file = null;
+        OutputStream out = null;
+        try {
+            file = File.createTempFile("export-", ".tmp", directory);
+            out = new BufferedOutputStream(new FileOutputStream(file));
+            final OutputStream jobOut = out;
+            if (transactionManager != null) {
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.setReadOnly(true);
+                transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                    @Override
+                    protected void doInTransactionWithoutResult(TransactionStatus status) {
+                        try {
+                            task.export(job, jobOut);
+                        } catch (RuntimeException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new ServiceException(e.getMessage(), e);
+                        }
+                    }
+                });
+            } else {
+                task.export(job, jobOut);
+            }
+            out.close();
+            job.completed(file);
+            logger.info("Export job {} completed in {} ms, {} bytes", new Object[] { job.getId(),
+                    System.currentTimeMillis() - start, job.getSize() });
+        } catch (Exception e) {
+            logger.error("Export job " + job.getId() + " failed", e);
+            IOUtils.closeQuietly(out);
+            FileUtils.deleteQuietly(file);
+            job.failed(StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getName()));
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        long expireTime = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        for (Iterator<ExportJob> iter = jobs.values().iterator(); iter.hasNext();) {
+            ExportJob job = iter.next();
+            if (!job.isActive() && job.getCompletedTime().getTime() < expireTime) {
+                iter.remove();
+                deleteFile(job);
+            }
+        }
+    }
+
+    private void deleteFile(ExportJob job) {
+        if (job.getFile() != null) {
+            FileUtils.deleteQuietly(job.getFile());
+        }
+    }
+}
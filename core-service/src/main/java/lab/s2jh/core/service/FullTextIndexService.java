@@ -0,0 +1,515 @@
+package lab.s2jh.core.service;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import lab.s2jh.core.entity.annotation.FullTextIndexed;
+import lab.s2jh.core.util.reflection.AccessorRegistry;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Persistable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * 基于内存倒排索引的全文检索服务，为 {@link FullTextIndexed} 标注属性的CN包含查询提供主键检索支持
+ *
+ * 实现要点：
+ * <ul>
+ * <li>按照字符二元组(bigram)建立倒排索引，可同时支持中文及英文数字任意位置的包含匹配，检索候选结果再以原文精确校验</li>
+ * <li>每个实体类型的索引在首次检索时以独立事务从数据库按主键顺序分批加载构建，之后由 {@link BaseService} 保存/删除操作在事务成功提交之后同步更新；
+ * 构建期间提交的变更先记录下来，构建完成之后再依次应用</li>
+ * <li>当前事务中存在未提交变更的实体类型，检索直接返回null由调用方回退为数据库like查询，避免读不到本事务写入数据</li>
+ * </ul>
+ * 注意：索引数据只存在于当前节点内存，基于JPQL/SQL直接批量更新、或集群其他节点的数据变更无法同步，检索结果会与数据库不一致，
+ * 因此默认关闭，只适合单节点部署并且所有数据变更都经由 {@link BaseService} 的场景，通过fulltext.index.enabled=true开启；
+ * 需要时可调用 {@link #rebuild(Class)} 重建索引
+ */
+@Component
+public class FullTextIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextIndexService.class);
+
+    /** 绑定在当前事务中待提交更新索引的实体类型集合资源Key */
+    private static final Object PENDING_CLASSES_RESOURCE_KEY = new Object();
+
+    private static final int BUILD_BATCH_SIZE = 5000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** key=实体类型，value=标注索引的属性名称集合，未标注任何属性则为空数组 */
+    private final ConcurrentMap<Class<?>, String[]> indexedProperties = new ConcurrentHashMap<Class<?>, String[]>();
+
+    private final ConcurrentMap<Class<?>, EntityIndex> entityIndexes = new ConcurrentHashMap<Class<?>, EntityIndex>();
+
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    private boolean enabled = false;
+
+    private int maxMatchedIds = 1000;
+
+    @Value("${fulltext.index.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 单次检索匹配主键个数上限，超出则返回null由调用方回退为数据库like查询，避免生成过长的IN条件
+     */
+    @Value("${fulltext.index.max.matched.ids:1000}")
+    public void setMaxMatchedIds(int maxMatchedIds) {
+        this.maxMatchedIds = maxMatchedIds;
+    }
+
+    /**
+     * 判断实体属性是否有标注建立全文索引
+     */
+    public boolean isIndexed(Class<?> entityClass, String property) {
+        return enabled && ArrayUtils.contains(getIndexedProperties(entityClass), property);
+    }
+
+    /**
+     * 检索属性值包含指定文本（忽略大小写）的实体主键集合
+     *
+     * @return 匹配主键集合；如果属性未索引、当前事务存在未提交变更或匹配数量超出上限则返回null，调用方应回退为数据库查询
+     */
+    public Set<Serializable> findIdsContaining(Class<?> entityClass, String property, String text) {
+        if (!isIndexed(entityClass, property) || isPendingInCurrentTransaction(entityClass)) {
+            return null;
+        }
+        Set<Serializable> ids = getEntityIndex(entityClass).getPropertyIndex(property).search(normalize(text));
+        return ids.size() > maxMatchedIds ? null : ids;
+    }
+
+    /**
+     * 关键词检索：以空白分隔的多个关键词，属性值需同时包含所有关键词
+     *
+     * @return 匹配主键集合；如果属性未索引、当前事务存在未提交变更或匹配数量超出上限则返回null，调用方应回退为数据库查询
+     */
+    public Set<Serializable> findIdsByKeywords(Class<?> entityClass, String property, String keywords) {
+        if (!isIndexed(entityClass, property) || isPendingInCurrentTransaction(entityClass)) {
+            return null;
+        }
+        PropertyIndex propertyIndex = getEntityIndex(entityClass).getPropertyIndex(property);
+        Set<Serializable> ids = null;
+        for (String keyword : StringUtils.split(normalize(keywords))) {
+            Set<Serializable> matched = propertyIndex.search(keyword);
+            if (ids == null) {
+                ids = matched;
+            } else {
+                ids.retainAll(matched);
+            }
+            if (ids.isEmpty()) {
+                break;
+            }
+        }
+        if (ids == null) {
+            return Sets.newHashSet();
+        }
+        return ids.size() > maxMatchedIds ? null : ids;
+    }
+
+    /**
+     * 实体保存之后调用，在当前事务成功提交之后更新索引
+     */
+    public void update(Class<?> entityClass, Persistable<? extends Serializable> entity) {
+        String[] properties = getIndexedProperties(entityClass);
+        if (!enabled || properties.length == 0) {
+            return;
+        }
+        //在调用时获取属性值快照，避免事务提交之后访问延迟加载等问题
+        Map<String, String> texts = Maps.newHashMap();
+        for (String property : properties) {
+            Object value = AccessorRegistry.getProperty(entity, property);
+            texts.put(property, value == null ? null : normalize(String.valueOf(value)));
+        }
+        afterCommit(entityClass, new IndexChange(entity.getId(), texts));
+    }
+
+    /**
+     * 实体删除之后调用，在当前事务成功提交之后移除索引
+     */
+    public void remove(Class<?> entityClass, Serializable id) {
+        if (!enabled || getIndexedProperties(entityClass).length == 0) {
+            return;
+        }
+        afterCommit(entityClass, new IndexChange(id, null));
+    }
+
+    /**
+     * 丢弃实体类型当前索引数据，下次检索时重新从数据库加载构建
+     */
+    public void rebuild(Class<?> entityClass) {
+        logger.info("Discarding full text index for: {}", entityClass.getName());
+        entityIndexes.remove(entityClass);
+    }
+
+    /**
+     * 索引统计数据，用于管理界面展示
+     */
+    public List<Map<String, Object>> getStatistics() {
+        List<Map<String, Object>> datas = Lists.newArrayList();
+        for (Map.Entry<Class<?>, EntityIndex> me : entityIndexes.entrySet()) {
+            for (Map.Entry<String, PropertyIndex> pme : me.getValue().propertyIndexes.entrySet()) {
+                Map<String, Object> data = Maps.newLinkedHashMap();
+                data.put("entityClass", me.getKey().getName());
+                data.put("property", pme.getKey());
+                data.put("documents", pme.getValue().texts.size());
+                data.put("terms", pme.getValue().postings.size());
+                datas.add(data);
+            }
+        }
+        return datas;
+    }
+
+    private String[] getIndexedProperties(Class<?> entityClass) {
+        String[] properties = indexedProperties.get(entityClass);
+        if (properties == null) {
+            List<String> names = Lists.newArrayList();
+            for (Method method : entityClass.getMethods()) {
+                if (method.isAnnotationPresent(FullTextIndexed.class) && method.getName().startsWith("get")
+                        && method.getParameterTypes().length == 0) {
+                    names.add(StringUtils.uncapitalize(method.getName().substring(3)));
+                }
+            }
+            properties = names.toArray(new String[names.size()]);
+            indexedProperties.putIfAbsent(entityClass, properties);
+        }
+        return properties;
+    }
+
+    private EntityIndex getEntityIndex(Class<?> entityClass) {
+        EntityIndex entityIndex = entityIndexes.get(entityClass);
+        if (entityIndex == null) {
+            EntityIndex newEntityIndex = new EntityIndex(getIndexedProperties(entityClass));
+            entityIndex = entityIndexes.putIfAbsent(entityClass, newEntityIndex);
+            if (entityIndex == null) {
+                entityIndex = newEntityIndex;
+            }
+        }
+        entityIndex.ensureBuilt(entityClass);
+        return entityIndex;
+    }
+
+    private void afterCommit(final Class<?> entityClass, final IndexChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyChange(entityClass, change);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Class<?>> pendingClasses = (Set<Class<?>>) TransactionSynchronizationManager
+                .getResource(PENDING_CLASSES_RESOURCE_KEY);
+        if (pendingClasses == null) {
+            pendingClasses = Sets.newHashSet();
+            TransactionSynchronizationManager.bindResource(PENDING_CLASSES_RESOURCE_KEY, pendingClasses);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CLASSES_RESOURCE_KEY);
+                }
+            });
+        }
+        pendingClasses.add(entityClass);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                applyChange(entityClass, change);
+            }
+        });
+    }
+
+    private void applyChange(Class<?> entityClass, IndexChange change) {
+        //索引尚未构建则无需处理，首次检索时会从数据库加载最新数据
+        EntityIndex entityIndex = entityIndexes.get(entityClass);
+        if (entityIndex != null) {
+            entityIndex.apply(change);
+        }
+    }
+
+    private boolean isPendingInCurrentTransaction(Class<?> entityClass) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Class<?>> pendingClasses = (Set<Class<?>>) TransactionSynchronizationManager
+                .getResource(PENDING_CLASSES_RESOURCE_KEY);
+        return pendingClasses != null && pendingClasses.contains(entityClass);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase();
+    }
+
+    /**
+     * 索引变更操作：texts为null表示移除
+     */
+    private static class IndexChange {
+
+        private final Serializable id;
+
+        private final Map<String, String> texts;
+
+        private IndexChange(Serializable id, Map<String, String> texts) {
+            this.id = id;
+            this.texts = texts;
+        }
+    }
+
+    private class EntityIndex {
+
+        private final Map<String, PropertyIndex> propertyIndexes = Maps.newLinkedHashMap();
+
+        private volatile boolean built = false;
+
+        /** 构建期间提交的变更，构建完成之后按提交顺序应用 */
+        private final List<IndexChange> pendingChanges = Lists.newArrayList();
+
+        private EntityIndex(String[] properties) {
+            for (String property : properties) {
+                propertyIndexes.put(property, new PropertyIndex());
+            }
+        }
+
+        private PropertyIndex getPropertyIndex(String property) {
+            return propertyIndexes.get(property);
+        }
+
+        /**
+         * 索引对象在构建之前已注册，注册之后提交的变更在构建期间记录到pendingChanges，构建完成之后再依次应用；
+         * 注册之前提交的变更则必然包含在构建时新开启事务的读取数据中，从而不会遗漏任何已提交变更
+         */
+        private void ensureBuilt(final Class<?> entityClass) {
+            if (built) {
+                return;
+            }
+            synchronized (this) {
+                if (built) {
+                    return;
+                }
+                long start = System.currentTimeMillis();
+                int total;
+                if (transactionManager == null) {
+                    total = load(entityClass);
+                } else {
+                    //以新开启的独立事务读取，避免沿用调用方事务中可能早于其他事务提交的一致性读快照
+                    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    transactionTemplate.setReadOnly(true);
+                    total = transactionTemplate.execute(new TransactionCallback<Integer>() {
+                        @Override
+                        public Integer doInTransaction(TransactionStatus status) {
+                            return load(entityClass);
+                        }
+                    });
+                }
+                synchronized (pendingChanges) {
+                    for (IndexChange change : pendingChanges) {
+                        applyInternal(change);
+                    }
+                    pendingChanges.clear();
+                    built = true;
+                }
+                logger.info("Built full text index for {} with {} rows in {} ms", new Object[] {
+                        entityClass.getName(), total, System.currentTimeMillis() - start });
+            }
+        }
+
+        /**
+         * 按主键顺序以主键条件分批加载，不使用offset分页，避免构建期间数据增删导致分页错位遗漏数据
+         */
+        private int load(Class<?> entityClass) {
+            String entityName = entityManager.getMetamodel().entity(entityClass).getName();
+            StringBuilder select = new StringBuilder("select e.id");
+            for (String property : propertyIndexes.keySet()) {
+                select.append(", e.").append(property);
+            }
+            select.append(" from ").append(entityName).append(" e");
+            int total = 0;
+            Object lastId = null;
+            while (true) {
+                Query query;
+                if (lastId == null) {
+                    query = entityManager.createQuery(select + " order by e.id");
+                } else {
+                    query = entityManager.createQuery(select + " where e.id > :lastId order by e.id").setParameter(
+                            "lastId", lastId);
+                }
+                @SuppressWarnings("unchecked")
+                List<Object[]> rows = query.setMaxResults(BUILD_BATCH_SIZE).getResultList();
+                for (Object[] row : rows) {
+                    int i = 1;
+                    for (PropertyIndex propertyIndex : propertyIndexes.values()) {
+                        Object value = row[i++];
+                        propertyIndex.put((Serializable) row[0], value == null ? null : normalize(String
+                                .valueOf(value)));
+                    }
+                    lastId = row[0];
+                }
+                total += rows.size();
+                if (rows.size() < BUILD_BATCH_SIZE) {
+                    break;
+                }
+            }
+            return total;
+        }
+
+        private void apply(IndexChange change) {
+            if (!built) {
+                synchronized (pendingChanges) {
+                    if (!built) {
+                        pendingChanges.add(change);
+                        return;
+                    }
+                }
+            }
+            applyInternal(change);
+        }
+
+        private void applyInternal(IndexChange change) {
+            //多个属性索引整体更新，与其他变更串行执行
+            synchronized (propertyIndexes) {
+                for (Map.Entry<String, PropertyIndex> me : propertyIndexes.entrySet()) {
+                    if (change.texts == null) {
+                        me.getValue().remove(change.id);
+                    } else if (change.texts.containsKey(me.getKey())) {
+                        me.getValue().put(change.id, change.texts.get(me.getKey()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 单个属性的倒排索引：key=字符二元组，value=包含此二元组的主键集合
+     */
+    private static class PropertyIndex {
+
+        private final Map<Serializable, String> texts = Maps.newHashMap();
+
+        private final Map<String, Set<Serializable>> postings = Maps.newHashMap();
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private void put(Serializable id, String text) {
+            lock.writeLock().lock();
+            try {
+                removeInternal(id);
+                if (StringUtils.isEmpty(text)) {
+                    return;
+                }
+                texts.put(id, text);
+                for (String gram : toGrams(text)) {
+                    Set<Serializable> ids = postings.get(gram);
+                    if (ids == null) {
+                        ids = Sets.newHashSet();
+                        postings.put(gram, ids);
+                    }
+                    ids.add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(Serializable id) {
+            lock.writeLock().lock();
+            try {
+                removeInternal(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeInternal(Serializable id) {
+            String text = texts.remove(id);
+            if (text == null) {
+                return;
+            }
+            for (String gram : toGrams(text)) {
+                Set<Serializable> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        private Set<Serializable> search(String text) {
+            Set<Serializable> matched = Sets.newHashSet();
+            if (StringUtils.isEmpty(text)) {
+                return matched;
+            }
+            lock.readLock().lock();
+            try {
+                Collection<Serializable> candidates;
+                if (text.length() < 2) {
+                    //单字符无法基于二元组检索，直接遍历内存原文匹配
+                    candidates = texts.keySet();
+                } else {
+                    //以最短的倒排列表作为候选集合，再以原文精确校验排除二元组匹配但不连续的结果
+                    candidates = null;
+                    for (String gram : toGrams(text)) {
+                        Set<Serializable> ids = postings.get(gram);
+                        if (ids == null) {
+                            return matched;
+                        }
+                        if (candidates == null || ids.size() < candidates.size()) {
+                            candidates = ids;
+                        }
+                    }
+                }
+                for (Serializable id : candidates) {
+                    if (texts.get(id).contains(text)) {
+                        matched.add(id);
+                    }
+                }
+                return matched;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static Set<String> toGrams(String text) {
+            if (text.length() < 2) {
+                return Collections.emptySet();
+            }
+            Set<String> grams = Sets.newHashSet();
+            for (int i = 0; i < text.length() - 1; i++) {
+                grams.add(text.substring(i, i + 2));
+            }
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package lab.s2jh.core.service;
+
+import java.util.Map;
+
+import lab.s2jh.core.entity.annotation.MonthlyPartition;
+import lab.s2jh.core.util.DateUtils;
+
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Maps;
+
+/**
+ * {@link MonthlyPartition} 按月分区实体的数据维护：
+ * <ul>
+ * <li>应用启动时补全历史数据为空的分区属性，补全完成之前分区查询条件兼容分区属性为空的数据</li>
+ * <li>按保留月数把已关闭期间的数据逐月归档到归档表，一般由定时任务调用</li>
+ * </ul>
+ *
+ * @see BaseService#fillPartitionKeys()
+ * @see BaseService#archivePartition(int)
+ */
+@Component
+public class MonthlyPartitionService implements ApplicationListener<ContextRefreshedEvent>, ApplicationContextAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyPartitionService.class);
+
+    private ApplicationContext applicationContext;
+
+    private boolean fillOnStartup = true;
+
+    private int keepMonths = 24;
+
+    /**
+     * 是否在应用启动时补全分区属性，对于数据量巨大的数据表可关闭后由DBA以迁移脚本方式处理
+     */
+    @Value("${partition.fill.on.startup:true}")
+    public void setFillOnStartup(boolean fillOnStartup) {
+        this.fillOnStartup = fillOnStartup;
+    }
+
+    /**
+     * 主表保留的月份数（含当前月份），更早月份的数据归档，0表示不归档
+     */
+    @Value("${partition.archive.keep.months:24}")
+    public void setKeepMonths(int keepMonths) {
+        this.keepMonths = keepMonths;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        //忽略子容器刷新事件
+        if (event.getApplicationContext() == applicationContext && fillOnStartup) {
+            fillPartitionKeys();
+        }
+    }
+
+    /**
+     * 补全所有按月分区实体历史数据的分区属性
+     * @return 实体名称及对应更新记录数
+     */
+    @SuppressWarnings("rawtypes")
+    public Map<String, Integer> fillPartitionKeys() {
+        Map<String, Integer> result = Maps.newLinkedHashMap();
+        for (Map.Entry<String, BaseService> me : applicationContext.getBeansOfType(BaseService.class).entrySet()) {
+            BaseService service = me.getValue();
+            if (service.isMonthlyPartitioned()) {
+                int updated = service.fillPartitionKeys();
+                logger.info("Filled {} partition keys by {}", updated, me.getKey());
+                result.put(me.getKey(), updated);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按保留月数归档所有按月分区实体的历史数据，归档前先补全分区属性，各月份以独立事务归档
+     * @return 实体名称及对应归档记录数
+     */
+    @SuppressWarnings("rawtypes")
+    public Map<String, Integer> archive() {
+        Map<String, Integer> result = Maps.newLinkedHashMap();
+        if (keepMonths <= 0) {
+            logger.info("Monthly partition archive disabled");
+            return result;
+        }
+        int cutoff = DateUtils.toYearMonth(new DateTime().minusMonths(keepMonths - 1).toDate());
+        for (Map.Entry<String, BaseService> me : applicationContext.getBeansOfType(BaseService.class).entrySet()) {
+            BaseService service = me.getValue();
+            if (!service.isMonthlyPartitioned()) {
+                continue;
+            }
+            service.fillPartitionKeys();
+            int archived = 0;
+            for (Object yearMonth : service.findPartitionMonthsBefore(cutoff)) {
+                archived += service.archivePartition((Integer) yearMonth);
+            }
+            result.put(me.getKey(), archived);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,443 @@
+package lab.s2jh.core.service;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lab.s2jh.core.annotation.MetaData;
+import lab.s2jh.core.exception.ServiceException;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * 基于标签(Tag)失效的应用级查询结果缓存，主要用于 {@link BaseService} 的动态条件查询
+ *
+ * 与Hibernate Query Cache任意数据变更即失效整表相关查询的机制不同：
+ * <ul>
+ * <li>每个缓存项在写入时记录所关联标签（实体类型，或限定主键查询时的主键区间）及其当前版本号</li>
+ * <li>数据变更在事务提交之后才递增对应标签版本号，读取时版本号不一致即视为失效，无需遍历清理缓存项</li>
+ * <li>当前事务中已存在未提交变更的标签，相关查询直接绕过缓存，避免读写不一致</li>
+ * <li>当前事务可能已持有较早的一致性读快照时，查询结果不写入缓存，避免以提交后的版本号缓存提交前的数据</li>
+ * </ul>
+ * 注意：基于JPQL/SQL直接批量更新等绕过 {@link BaseService} 保存/删除接口的操作，需要自行调用 {@link #invalidate(Class, Serializable...)}
+ * 标签版本号只在当前节点内存中维护，其他节点提交的数据变更无法感知，因此集群部署（cluster.mode=true）时不缓存查询结果，
+ * {@link #getDataVersion(Class...)} 也不再提供基于实体数据的版本标识
+ * 标签版本号取自全局递增序号，长期未访问的标签版本记录可直接回收：重建时以当前全局序号初始化，不会小于回收前的版本号，
+ * 因此回收只可能导致缓存项提前失效，而不会误判为有效
+ */
+@Component
+public class QueryResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultCache.class);
+
+    @MetaData(value = "主键区间大小", comments = "数值主键按照区间值整除分段，其余类型主键按照hash值取模分段")
+    private static final int KEY_RANGE_SIZE = 1000;
+
+    private static final String KEY_RANGE_SEPARATOR = "#";
+
+    /** 绑定在当前事务中待提交失效的标签集合资源Key */
+    private static final Object PENDING_TAGS_RESOURCE_KEY = new Object();
+
+    /** 标识当前事务已执行过缓存查询的资源Key */
+    private static final Object TRANSACTION_LOADED_RESOURCE_KEY = new Object();
+
+    private volatile Cache<String, CacheEntry> entries;
+
+    private volatile LoadingCache<String, AtomicLong> tagVersions;
+
+    /** 标签版本全局递增序号 */
+    private final AtomicLong tagSequence = new AtomicLong();
+
+    /** 整体清空缓存的次数，作为数据版本标识的一部分，管理界面刷新缓存后客户端缓存数据随之失效 */
+    private final AtomicLong epoch = new AtomicLong();
+
+    /** 当前应用实例启动标识，用于区分重启前后内存中重新计数的版本号 */
+    private final String instanceVersion = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final ConcurrentMap<String, CacheStatistics> statistics = new ConcurrentHashMap<String, CacheStatistics>();
+
+    private boolean clusterMode = false;
+
+    private int maxEntries = 5000;
+
+    private int expireSeconds = 3600;
+
+    @Value("${cluster.mode:false}")
+    public void setClusterMode(boolean clusterMode) {
+        this.clusterMode = clusterMode;
+    }
+
+    @Value("${query.result.cache.max.entries:5000}")
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = null;
+        this.tagVersions = null;
+    }
+
+    @Value("${query.result.cache.expire.seconds:3600}")
+    public void setExpireSeconds(int expireSeconds) {
+        this.expireSeconds = expireSeconds;
+        this.entries = null;
+        this.tagVersions = null;
+    }
+
+    private Cache<String, CacheEntry> getEntries() {
+        if (entries == null) {
+            synchronized (this) {
+                if (entries == null) {
+                    entries = CacheBuilder.newBuilder().maximumSize(maxEntries)
+                            .expireAfterWrite(expireSeconds, TimeUnit.SECONDS).build();
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 标签版本记录：缓存项读取校验时会访问其关联标签，因此超过缓存项有效期未访问的标签已无有效缓存项依赖
+     */
+    private LoadingCache<String, AtomicLong> getTagVersions() {
+        if (tagVersions == null) {
+            synchronized (this) {
+                if (tagVersions == null) {
+                    tagVersions = CacheBuilder.newBuilder().maximumSize(maxEntries * 10L)
+                            .expireAfterAccess(expireSeconds, TimeUnit.SECONDS)
+                            .build(new CacheLoader<String, AtomicLong>() {
+                                @Override
+                                public AtomicLong load(String tag) {
+                                    return new AtomicLong(tagSequence.get());
+                                }
+                            });
+                }
+            }
+        }
+        return tagVersions;
+    }
+
+    /**
+     * 实体类型标签
+     */
+    public String buildTypeTag(Class<?> entityClass) {
+        return entityClass.getName();
+    }
+
+    /**
+     * 实体主键所在区间标签
+     */
+    public String buildKeyRangeTag(Class<?> entityClass, Serializable id) {
+        //统一按字符串处理，避免查询参数与实体主键数据类型不一致（如"12"与12L）导致区间计算不一致
+        String key = String.valueOf(id);
+        long range;
+        if (key.length() < 19 && NumberUtils.isDigits(key)) {
+            range = Long.parseLong(key) / KEY_RANGE_SIZE;
+        } else {
+            range = Math.abs(key.hashCode() % KEY_RANGE_SIZE);
+        }
+        return entityClass.getName() + KEY_RANGE_SEPARATOR + range;
+    }
+
+    /**
+     * 查询缓存数据，如果缓存项不存在或已失效则调用loader查询并在标签版本未变化的前提下写入缓存
+     *
+     * @param entityClass 主体实体类型，用于分类统计命中率
+     * @param key 查询唯一标识，一般由查询方法及参数组成
+     * @param tags 缓存项关联标签集合，任一标签失效则缓存项失效
+     * @param loader 实际查询回调
+     * @return 查询结果
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Class<?> entityClass, String key, Collection<String> tags, Callable<V> loader) {
+        CacheStatistics stat = getStatistics(entityClass);
+        if (clusterMode) {
+            stat.bypasses.incrementAndGet();
+            return call(loader);
+        }
+        //命中缓存后调用方一般也会继续查询数据库（如按主键加载实体），因此在读取缓存之前即判断并标记当前事务
+        boolean snapshotHeld = isSnapshotHeldByCurrentTransaction();
+        if (isPendingInCurrentTransaction(tags)) {
+            stat.bypasses.incrementAndGet();
+            return call(loader);
+        }
+
+        String cacheKey = entityClass.getName() + ":" + key;
+        CacheEntry entry = getEntries().getIfPresent(cacheKey);
+        if (entry != null && entry.isValid()) {
+            stat.hits.incrementAndGet();
+            return (V) entry.value;
+        }
+
+        stat.misses.incrementAndGet();
+        //当前事务可能已持有更早的一致性读快照，此时查询结果可能早于已递增的标签版本，只查询不写入缓存
+        if (snapshotHeld) {
+            stat.bypasses.incrementAndGet();
+            return call(loader);
+        }
+        //先记录标签版本再执行查询，查询期间如有提交变更则版本不一致，不写入可能过时的结果
+        CacheEntry newEntry = new CacheEntry(tags);
+        V value = call(loader);
+        if (value != null && newEntry.isValid()) {
+            newEntry.value = value;
+            getEntries().put(cacheKey, newEntry);
+        }
+        return value;
+    }
+
+    /**
+     * 失效实体类型及对应主键区间标签，如果当前处于事务中则在事务成功提交之后才失效
+     *
+     * @param entityClass 变更实体类型
+     * @param ids 变更数据主键，未提供则只失效实体类型标签
+     */
+    public void invalidate(Class<?> entityClass, Serializable... ids) {
+        Set<String> tags = Sets.newHashSet(buildTypeTag(entityClass));
+        if (ids != null) {
+            for (Serializable id : ids) {
+                if (id != null) {
+                    tags.add(buildKeyRangeTag(entityClass, id));
+                }
+            }
+        }
+        getStatistics(entityClass).invalidations.incrementAndGet();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateTags(tags);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pendingTags = (Set<String>) TransactionSynchronizationManager
+                .getResource(PENDING_TAGS_RESOURCE_KEY);
+        if (pendingTags == null) {
+            final Set<String> transactionTags = Sets.newHashSet();
+            pendingTags = transactionTags;
+            TransactionSynchronizationManager.bindResource(PENDING_TAGS_RESOURCE_KEY, transactionTags);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_TAGS_RESOURCE_KEY);
+                    if (status == STATUS_COMMITTED) {
+                        invalidateTags(transactionTags);
+                    }
+                }
+            });
+        }
+        pendingTags.addAll(tags);
+    }
+
+    /**
+     * 实体类型数据版本标识，任一实体类型数据变更在事务提交后即变化，可用于HTTP ETag等客户端缓存校验；
+     * 版本号只在当前应用实例内存中维护，因此附加实例启动标识，避免应用重启前后版本号相同但数据不同；
+     * 调用 {@link #clear()} 整体清空缓存后版本标识也随之变化。
+     * 只适用于单节点部署：集群部署时其他节点提交的变更不会改变当前节点版本号，因此依赖实体数据的版本返回null，调用方不应输出ETag
+     *
+     * @param entityClasses 数据所依赖的实体类型，未提供则只返回实例启动标识，适用于运行期不变的数据
+     * @return 数据版本标识，集群部署并且依赖实体数据时返回null
+     */
+    public String getDataVersion(Class<?>... entityClasses) {
+        if (clusterMode && entityClasses.length > 0) {
+            return null;
+        }
+        StringBuilder version = new StringBuilder(instanceVersion).append(".").append(epoch.get());
+        for (Class<?> entityClass : entityClasses) {
+            version.append("-").append(getTagVersion(buildTypeTag(entityClass)).get());
+        }
+        return version.toString();
+    }
+
+    /**
+     * 清空所有缓存数据，同时变更所有数据版本标识，使基于版本的客户端缓存及预先序列化数据一并失效
+     */
+    public void clear() {
+        logger.info("Evicting all query result cache entries");
+        epoch.incrementAndGet();
+        getEntries().invalidateAll();
+    }
+
+    /**
+     * 按实体类型分类的缓存命中统计数据，用于管理界面展示
+     */
+    public List<Map<String, Object>> getStatistics() {
+        List<Map<String, Object>> datas = Lists.newArrayList();
+        for (Map.Entry<String, CacheStatistics> me : statistics.entrySet()) {
+            CacheStatistics stat = me.getValue();
+            long hits = stat.hits.get();
+            long misses = stat.misses.get();
+            Map<String, Object> data = Maps.newLinkedHashMap();
+            data.put("entityClass", me.getKey());
+            data.put("hits", hits);
+            data.put("misses", misses);
+            data.put("bypasses", stat.bypasses.get());
+            data.put("invalidations", stat.invalidations.get());
+            data.put("hitRatio", hits + misses == 0 ? 0 : Math.round(hits * 10000.0 / (hits + misses)) / 100.0);
+            datas.add(data);
+        }
+        return datas;
+    }
+
+    public long getSize() {
+        return getEntries().size();
+    }
+
+    private void invalidateTags(Collection<String> tags) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Invalidating query result cache tags: {}", tags);
+        }
+        for (String tag : tags) {
+            AtomicLong version = getTagVersion(tag);
+            while (true) {
+                long next = tagSequence.incrementAndGet();
+                long current = version.get();
+                //并发递增时保持单调，不回退到较小的序号
+                while (current < next && !version.compareAndSet(current, next)) {
+                    current = version.get();
+                }
+                //递增期间标签记录被回收并以递增前的序号重建，则对重建后的记录重新递增，避免失效丢失
+                AtomicLong present = getTagVersions().getIfPresent(tag);
+                if (present == null || present == version) {
+                    break;
+                }
+                version = present;
+            }
+        }
+    }
+
+    private boolean isPendingInCurrentTransaction(Collection<String> tags) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pendingTags = (Set<String>) TransactionSynchronizationManager
+                .getResource(PENDING_TAGS_RESOURCE_KEY);
+        if (pendingTags == null) {
+            return false;
+        }
+        for (String tag : tags) {
+            if (pendingTags.contains(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断当前事务是否可能已经建立一致性读快照（如MySQL REPEATABLE READ在事务首次读取时建立快照）：
+     * 只有当前@Transactional调用新开启的事务中首次缓存查询，才能保证标签版本记录先于快照建立；
+     * 加入外层已有事务、编程式事务或同一事务中的后续查询，快照可能早于其他事务的提交及版本递增，查询结果不写入缓存
+     */
+    private boolean isSnapshotHeldByCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.hasResource(TRANSACTION_LOADED_RESOURCE_KEY)) {
+            return true;
+        }
+        boolean newTransaction;
+        try {
+            newTransaction = TransactionAspectSupport.currentTransactionStatus().isNewTransaction();
+        } catch (NoTransactionException e) {
+            newTransaction = false;
+        }
+        if (!newTransaction) {
+            return true;
+        }
+        TransactionSynchronizationManager.bindResource(TRANSACTION_LOADED_RESOURCE_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_LOADED_RESOURCE_KEY);
+            }
+        });
+        return false;
+    }
+
+    private AtomicLong getTagVersion(String tag) {
+        return getTagVersions().getUnchecked(tag);
+    }
+
+    private CacheStatistics getStatistics(Class<?> entityClass) {
+        CacheStatistics stat = statistics.get(entityClass.getName());
+        if (stat == null) {
+            CacheStatistics newStat = new CacheStatistics();
+            stat = statistics.putIfAbsent(entityClass.getName(), newStat);
+            if (stat == null) {
+                stat = newStat;
+            }
+        }
+        return stat;
+    }
+
+    private <V> V call(Callable<V> loader) {
+        try {
+            return loader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException(e.getMessage(), e);
+        }
+    }
+
+    private class CacheEntry {
+
+        private final String[] tags;
+
+        private final long[] versions;
+
+        private final long entryEpoch;
+
+        private Object value;
+
+        private CacheEntry(Collection<String> tags) {
+            this.entryEpoch = epoch.get();
+            this.tags = tags.toArray(new String[tags.size()]);
+            this.versions = new long[this.tags.length];
+            for (int i = 0; i < this.tags.length; i++) {
+                versions[i] = getTagVersion(this.tags[i]).get();
+            }
+        }
+
+        private boolean isValid() {
+            if (entryEpoch != epoch.get()) {
+                return false;
+            }
+            for (int i = 0; i < tags.length; i++) {
+                if (getTagVersion(tags[i]).get() != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class CacheStatistics {
+
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        private final AtomicLong bypasses = new AtomicLong();
+
+        private final AtomicLong invalidations = new AtomicLong();
+    }
+}
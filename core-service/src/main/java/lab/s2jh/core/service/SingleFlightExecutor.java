@@ -0,0 +1,84 @@
+package lab.s2jh.core.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lab.s2jh.core.exception.ServiceException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 并发相同读请求合并执行(Single-Flight)
+ * 同一时刻相同标识（一般为方法名加规范化的参数）的调用只有第一个线程实际执行查询，其余并发线程等待并共享其结果或异常；
+ * 执行完毕即移除，后续调用重新执行，因此不存在缓存过期时间窗口带来的数据延迟问题
+ *
+ * 注意：结果对象会被多个线程共享，只适合返回VO/Map等只读数据结构的查询，不要返回Hibernate托管实体对象
+ */
+@Component
+public class SingleFlightExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightExecutor.class);
+
+    private final ConcurrentMap<String, FutureTask<?>> inFlights = new ConcurrentHashMap<String, FutureTask<?>>();
+
+    private final AtomicLong executions = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * 合并执行查询调用
+     *
+     * @param key 调用唯一标识
+     * @param callable 实际查询回调
+     * @return 查询结果
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String key, Callable<V> callable) {
+        FutureTask<V> task = new FutureTask<V>(callable);
+        FutureTask<V> inFlight = (FutureTask<V>) inFlights.putIfAbsent(key, task);
+        if (inFlight != null) {
+            coalesced.incrementAndGet();
+            logger.debug("Joining in-flight execution for key: {}", key);
+            return getResult(inFlight);
+        }
+        executions.incrementAndGet();
+        try {
+            task.run();
+            return getResult(task);
+        } finally {
+            inFlights.remove(key, task);
+        }
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private <V> V getResult(FutureTask<V> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ServiceException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -119,6 +119,17 @@ public class DateUtils {
         return sb.toString();
     }
 
+    /**
+     * 转换为yyyyMM格式的年月整数值，如2014-01-15转换为201401，主要用于按月分区数据
+     */
+    public static Integer toYearMonth(Date date) {
+        if (date == null) {
+            return null;
+        }
+        DateTime dateTime = new DateTime(date.getTime());
+        return dateTime.getYear() * 100 + dateTime.getMonthOfYear();
+    }
+
     /**
      * 把类似2014-01-01 ~ 2014-01-30格式的单一字符串转换为两个元素数组
      */
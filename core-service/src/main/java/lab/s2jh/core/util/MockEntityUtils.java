@@ -8,8 +8,9 @@ import java.util.Random;
 import javax.persistence.Column;
 import javax.validation.constraints.Size;
 
+import lab.s2jh.core.util.reflection.AccessorRegistry;
+
 import org.apache.commons.lang3.RandomStringUtils;
-import org.apache.commons.lang3.reflect.MethodUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,7 +31,7 @@ public class MockEntityUtils {
                 if (mn.startsWith("set")) {
                     Class[] parameters = method.getParameterTypes();
                     if (parameters.length == 1) {
-                        Method getMethod = MethodUtils.getAccessibleMethod(clazz, "get" + mn.substring(3), null);
+                        Method getMethod = AccessorRegistry.getMethod(clazz, "get" + mn.substring(3));
                         if (getMethod != null) {
                             if (getMethod.getName().equals("getId")) {
                                 continue;
@@ -62,7 +63,7 @@ public class MockEntityUtils {
                                 value = result[new Random().nextInt(result.length)];
                             }
                             if (value != null) {
-                                MethodUtils.invokeMethod(x, mn, value);
+                                method.invoke(x, value);
                                 logger.trace("{}={}", method.getName(), value);
                             }
                         }
@@ -0,0 +1,172 @@
+package lab.s2jh.core.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Native SQL语句处理帮助类
+ * 主要用于基于原始分页查询SQL推导计算总记录数的count语句，避免简单包裹方式下数据库对排序、复杂select列表等无效计算
+ * 分析逻辑只针对SQL最外层（括号嵌套之外、字符串常量之外）的关键字，子查询部分保持原样
+ */
+public class SqlUtils {
+
+    private static final Pattern SELECT_PATTERN = Pattern.compile("^\\s*select\\s");
+
+    private static final Pattern FROM_PATTERN = Pattern.compile("\\sfrom\\s");
+
+    private static final Pattern ORDER_BY_PATTERN = Pattern.compile("\\sorder\\s+by\\s");
+
+    /** distinct之后可能紧跟括号，如select distinct(name) from t */
+    private static final Pattern DISTINCT_PATTERN = Pattern.compile("^\\s*select\\s+(distinct|unique)\\b");
+
+    private static final Pattern GROUP_BY_PATTERN = Pattern.compile("\\s(group\\s+by|having)\\s");
+
+    private static final Pattern SET_OPERATION_PATTERN = Pattern.compile("\\s(union|intersect|except|minus)\\s");
+
+    private static final Pattern LIMIT_PATTERN = Pattern.compile("\\s(limit|offset|fetch|top)\\s");
+
+    private static final Pattern WILDCARD_PATTERN = Pattern.compile("(^|[\\s,])\\*");
+
+    private static final Pattern AGGREGATE_PATTERN = Pattern.compile("(^|[^a-z0-9_])(count|sum|avg|min|max)\\s*\\(");
+
+    /**
+     * 把SQL中括号嵌套内容及字符串常量内容替换为空格，只保留最外层语句结构（长度不变，位置一一对应）
+     * 同时统一转换为小写，换行等空白字符统一为空格，便于后续正则匹配最外层关键字
+     */
+    private static String maskNested(String sql) {
+        char[] chars = sql.toCharArray();
+        char[] masked = new char[chars.length];
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (quote != 0) {
+                masked[i] = ' ';
+                if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (c == '\'' || c == '"') {
+                quote = c;
+                masked[i] = ' ';
+                continue;
+            }
+            if (c == '(') {
+                masked[i] = depth == 0 ? c : ' ';
+                depth++;
+                continue;
+            }
+            if (c == ')') {
+                depth--;
+                masked[i] = depth == 0 ? c : ' ';
+                continue;
+            }
+            if (depth > 0 || Character.isWhitespace(c)) {
+                masked[i] = ' ';
+            } else {
+                masked[i] = Character.toLowerCase(c);
+            }
+        }
+        return new String(masked);
+    }
+
+    private static int indexOf(Pattern pattern, String masked) {
+        Matcher matcher = pattern.matcher(masked);
+        if (matcher.find()) {
+            return matcher.start();
+        }
+        return -1;
+    }
+
+    private static boolean contains(Pattern pattern, String masked) {
+        return indexOf(pattern, masked) > -1;
+    }
+
+    /**
+     * 移除最外层的order by部分，如果order by之后还存在limit/offset等分页定义则原样返回
+     * @param sql 原始SQL
+     * @return 不含最外层排序的SQL
+     */
+    public static String removeOrderBy(String sql) {
+        String masked = maskNested(sql);
+        int orderByIndex = indexOf(ORDER_BY_PATTERN, masked);
+        if (orderByIndex < 0) {
+            return sql;
+        }
+        if (contains(LIMIT_PATTERN, masked.substring(orderByIndex) + " ")) {
+            return sql;
+        }
+        return sql.substring(0, orderByIndex);
+    }
+
+    /**
+     * 基于分页查询SQL推导对应的count语句：
+     * <ul>
+     * <li>移除最外层order by排序部分</li>
+     * <li>简单单表/关联查询（无distinct、group by、union、聚合函数）直接替换select列表为count(*)</li>
+     * <li>其余复杂情况以子查询包裹方式计算</li>
+     * </ul>
+     * @param sql 分页查询SQL
+     * @return count语句
+     */
+    public static String buildCountSql(String sql) {
+        String noOrderBySql = removeOrderBy(sql);
+        String masked = maskNested(noOrderBySql) + " ";
+        if (isProjectionReplaceable(masked)) {
+            int fromIndex = indexOf(FROM_PATTERN, masked);
+            return "select count(*)" + noOrderBySql.substring(fromIndex);
+        }
+        return "select count(*) from (" + noOrderBySql + ") cnt";
+    }
+
+    /**
+     * 判断是否可以在最外层select列表追加count(*) over()窗口函数单次计算总记录数
+     * distinct和union等集合操作会在窗口函数之后生效，导致统计数量不准确，因此排除
+     * select *形式部分数据库不支持与其他列并列，也予以排除
+     * @param sql 分页查询SQL
+     * @return
+     */
+    public static boolean isWindowCountApplicable(String sql) {
+        String masked = maskNested(sql) + " ";
+        int fromIndex = indexOf(FROM_PATTERN, masked);
+        if (!contains(SELECT_PATTERN, masked) || fromIndex < 0) {
+            return false;
+        }
+        return !contains(DISTINCT_PATTERN, masked) && !contains(SET_OPERATION_PATTERN, masked)
+                && !contains(LIMIT_PATTERN, masked) && !contains(WILDCARD_PATTERN, masked.substring(0, fromIndex));
+    }
+
+    /**
+     * 在最外层select列表末尾追加count(*) over()窗口函数列，追加在末尾以免影响order by 1,2这样的序号排序定义
+     * @param sql 分页查询SQL，调用前请先通过 {@link #isWindowCountApplicable(String)} 判断
+     * @param alias 总记录数列别名
+     * @return 追加总记录数列的SQL
+     */
+    public static String appendWindowCount(String sql, String alias) {
+        int fromIndex = indexOf(FROM_PATTERN, maskNested(sql));
+        if (fromIndex < 0) {
+            return sql;
+        }
+        return sql.substring(0, fromIndex) + ", count(*) over() as " + alias + sql.substring(fromIndex);
+    }
+
+    private static boolean isProjectionReplaceable(String masked) {
+        int fromIndex = indexOf(FROM_PATTERN, masked);
+        if (!contains(SELECT_PATTERN, masked) || fromIndex < 0) {
+            return false;
+        }
+        if (contains(DISTINCT_PATTERN, masked) || contains(GROUP_BY_PATTERN, masked)
+                || contains(SET_OPERATION_PATTERN, masked) || contains(LIMIT_PATTERN, masked)) {
+            return false;
+        }
+        //不带group by的聚合查询只返回一行，不能直接替换select列表
+        String selectList = masked.substring(0, fromIndex);
+        if (contains(AGGREGATE_PATTERN, selectList)) {
+            return false;
+        }
+        return StringUtils.isNotBlank(selectList);
+    }
+}
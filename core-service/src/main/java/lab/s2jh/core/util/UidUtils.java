@@ -1,13 +1,99 @@
 package lab.s2jh.core.util;
 
+import java.security.SecureRandom;
 import java.util.UUID;
 
+/**
+ * 唯一标识生成工具
+ * 缺省生成按时间有序的UUID：高48位为毫秒时间戳，紧接4位版本号及12位同毫秒递增序号，低64位为RFC 4122变体标识及随机数；
+ * 相比完全随机的UUID，作为数据库主键时新数据总是追加在索引尾部，可避免随机插入导致的索引页分裂及缓存命中率下降
+ */
 public class UidUtils {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastTimestamp = -1L;
+
+    private static int sequence = 0;
+
     public static String UID(Class<?> clazz) {
-        return UUID.randomUUID().toString().toUpperCase();
+        return UID();
     }
 
     public static String UID() {
+        return timeOrderedUUID().toString().toUpperCase();
+    }
+
+    /**
+     * 完全随机的UUID
+     */
+    public static String randomUID() {
         return UUID.randomUUID().toString().toUpperCase();
     }
+
+    /**
+     * 按时间有序的UUID，同一JVM内严格单调递增，其标准字符串形式按字典序排序与生成顺序一致
+     */
+    public static UUID timeOrderedUUID() {
+        return timeOrderedUUID(System.currentTimeMillis());
+    }
+
+    /**
+     * 基于指定的当前时钟毫秒数生成，便于单元测试模拟时钟回拨等场景
+     */
+    static UUID timeOrderedUUID(long currentTimeMillis) {
+        long timestamp;
+        int seq;
+        synchronized (UidUtils.class) {
+            timestamp = currentTimeMillis;
+            if (timestamp > lastTimestamp) {
+                sequence = 0;
+                lastTimestamp = timestamp;
+            } else if (sequence < MAX_SEQUENCE) {
+                //同一毫秒内或时钟回拨时沿用上次时间戳递增序号
+                sequence++;
+            } else {
+                //同一毫秒序号用尽则借用下一毫秒
+                sequence = 0;
+                lastTimestamp++;
+            }
+            timestamp = lastTimestamp;
+            seq = sequence;
+        }
+        long mostSigBits = (timestamp << 16) | 0x7000L | seq;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * 转换为16字节紧凑存储形式
+     */
+    public static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[16];
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (msb >>> (8 * (7 - i)));
+            bytes[8 + i] = (byte) (lsb >>> (8 * (7 - i)));
+        }
+        return bytes;
+    }
+
+    /**
+     * 从16字节紧凑存储形式还原
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != 16) {
+            throw new IllegalArgumentException("UUID bytes length must be 16");
+        }
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < 8; i++) {
+            msb = (msb << 8) | (bytes[i] & 0xFF);
+            lsb = (lsb << 8) | (bytes[8 + i] & 0xFF);
+        }
+        return new UUID(msb, lsb);
+    }
 }
@@ -0,0 +1,294 @@
+package lab.s2jh.core.util.reflection;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.Assert;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 反射访问器缓存注册表.
+ *
+ * 每个Class的Field/Method/属性Getter/Setter只在首次访问时按名称解析一次并设置为可访问，之后从并发安全的缓存中直接获取，
+ * 避免在数据查询组装、参数绑定、JSON序列化等高频调用路径上反复按名称遍历类层次结构查找反射元数据.
+ * 缓存的Method对象在多次调用之后由JVM自动生成字节码访问器(反射inflation机制)，调用性能接近直接方法调用.
+ * 未找到的结果同样缓存，重复查找不存在的属性也不会再次遍历类层次结构.
+ */
+public class AccessorRegistry {
+
+	/** ConcurrentMap不支持null值，以此标识缓存的未找到结果 */
+	private static final Object NOT_FOUND = new Object();
+
+	private static final ConcurrentMap<Class<?>, ClassAccessors> registry = new ConcurrentHashMap<Class<?>, ClassAccessors>();
+
+	/**
+	 * 循环向上转型获取Class定义的Field, 并强制设置为可访问.
+	 *
+	 * @return 如向上转型到Object仍无法找到, 返回null.
+	 */
+	public static Field getField(final Class<?> clazz, final String fieldName) {
+		Assert.hasText(fieldName, "fieldName");
+		ClassAccessors accessors = getClassAccessors(clazz);
+		Object field = accessors.fields.get(fieldName);
+		if (field == null) {
+			field = findField(clazz, fieldName);
+			accessors.fields.putIfAbsent(fieldName, field);
+		}
+		return field == NOT_FOUND ? null : (Field) field;
+	}
+
+	/**
+	 * 循环向上转型获取Class定义的Method, 并强制设置为可访问.
+	 *
+	 * @return 如向上转型到Object仍无法找到, 返回null.
+	 */
+	public static Method getMethod(final Class<?> clazz, final String methodName, final Class<?>... parameterTypes) {
+		Assert.hasText(methodName, "methodName");
+		ClassAccessors accessors = getClassAccessors(clazz);
+		String key = buildMethodKey(methodName, parameterTypes);
+		Object method = accessors.methods.get(key);
+		if (method == null) {
+			method = findMethod(clazz, methodName, parameterTypes);
+			accessors.methods.putIfAbsent(key, method);
+		}
+		return method == NOT_FOUND ? null : (Method) method;
+	}
+
+	/**
+	 * 获取属性的Getter方法, 依次查找getXxx及boolean类型的isXxx无参方法.
+	 *
+	 * @return 未找到返回null.
+	 */
+	public static Method getReadMethod(final Class<?> clazz, final String propertyName) {
+		Assert.hasText(propertyName, "propertyName");
+		ClassAccessors accessors = getClassAccessors(clazz);
+		Object method = accessors.readMethods.get(propertyName);
+		if (method == null) {
+			String capitalized = StringUtils.capitalize(propertyName);
+			method = getMethod(clazz, "get" + capitalized);
+			if (method == null) {
+				Method isMethod = getMethod(clazz, "is" + capitalized);
+				if (isMethod != null && isMethod.getReturnType() == boolean.class) {
+					method = isMethod;
+				}
+			}
+			if (method == null) {
+				method = NOT_FOUND;
+			}
+			accessors.readMethods.putIfAbsent(propertyName, method);
+		}
+		return method == NOT_FOUND ? null : (Method) method;
+	}
+
+	/**
+	 * 获取属性的Setter方法, 优先查找参数类型与Getter返回类型一致的setXxx方法, 否则取第一个单参数setXxx方法.
+	 *
+	 * @return 未找到返回null.
+	 */
+	public static Method getWriteMethod(final Class<?> clazz, final String propertyName) {
+		Assert.hasText(propertyName, "propertyName");
+		ClassAccessors accessors = getClassAccessors(clazz);
+		Object method = accessors.writeMethods.get(propertyName);
+		if (method == null) {
+			String setterName = "set" + StringUtils.capitalize(propertyName);
+			Method readMethod = getReadMethod(clazz, propertyName);
+			if (readMethod != null) {
+				method = getMethod(clazz, setterName, readMethod.getReturnType());
+			}
+			if (method == null) {
+				method = findSingleParameterMethod(clazz, setterName);
+			}
+			accessors.writeMethods.putIfAbsent(propertyName, method);
+		}
+		return method == NOT_FOUND ? null : (Method) method;
+	}
+
+	/**
+	 * 获取Class及其父类(不包括stopClass及其父类)定义的所有非静态Field, 子类定义在前.
+	 */
+	public static List<Field> getFields(final Class<?> clazz, final Class<?> stopClass) {
+		ClassAccessors accessors = getClassAccessors(clazz);
+		Class<?> key = stopClass == null ? Object.class : stopClass;
+		Object fields = accessors.fieldLists.get(key);
+		if (fields == null) {
+			List<Field> list = Lists.newArrayList();
+			for (Class<?> superClass = clazz; superClass != null && superClass != stopClass
+					&& superClass != Object.class; superClass = superClass.getSuperclass()) {
+				for (Field field : superClass.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						field.setAccessible(true);
+						list.add(field);
+					}
+				}
+			}
+			fields = Collections.unmodifiableList(list);
+			accessors.fieldLists.putIfAbsent(key, fields);
+		}
+		@SuppressWarnings("unchecked")
+		List<Field> result = (List<Field>) fields;
+		return result;
+	}
+
+	/**
+	 * 通过Getter方法读取属性值, 支持以"."分隔的嵌套属性, 中间属性为null则返回null.
+	 */
+	public static Object getProperty(final Object bean, final String propertyName) {
+		Object value = bean;
+		for (String name : StringUtils.split(propertyName, ".")) {
+			if (value == null) {
+				return null;
+			}
+			Method method = getReadMethod(value.getClass(), name);
+			if (method == null) {
+				throw new IllegalArgumentException("Could not find getter for [" + name + "] on target [" + value
+						+ "]");
+			}
+			value = invoke(method, value);
+		}
+		return value;
+	}
+
+	/**
+	 * 通过Setter方法设置属性值, 支持以"."分隔的嵌套属性.
+	 */
+	public static void setProperty(final Object bean, final String propertyName, final Object value) {
+		Object target = bean;
+		String name = propertyName;
+		if (propertyName.indexOf(".") > -1) {
+			target = getProperty(bean, StringUtils.substringBeforeLast(propertyName, "."));
+			name = StringUtils.substringAfterLast(propertyName, ".");
+		}
+		Assert.notNull(target, "Nested property [" + propertyName + "] owner is null");
+		Method method = getWriteMethod(target.getClass(), name);
+		if (method == null) {
+			throw new IllegalArgumentException("Could not find setter for [" + name + "] on target [" + target + "]");
+		}
+		invoke(method, target, value);
+	}
+
+	/**
+	 * 直接读取对象属性值, 无视private/protected修饰符, 不经过getter函数.
+	 */
+	public static Object readField(final Object target, final String fieldName) {
+		Field field = getField(target.getClass(), fieldName);
+		if (field == null) {
+			throw new IllegalArgumentException("Could not find field [" + fieldName + "] on target [" + target + "]");
+		}
+		try {
+			return field.get(target);
+		} catch (IllegalAccessException e) {
+			throw ReflectionUtils.convertReflectionExceptionToUnchecked(e);
+		}
+	}
+
+	/**
+	 * 直接设置对象属性值, 无视private/protected修饰符, 不经过setter函数.
+	 */
+	public static void writeField(final Object target, final String fieldName, final Object value) {
+		Field field = getField(target.getClass(), fieldName);
+		if (field == null) {
+			throw new IllegalArgumentException("Could not find field [" + fieldName + "] on target [" + target + "]");
+		}
+		try {
+			field.set(target, value);
+		} catch (IllegalAccessException e) {
+			throw ReflectionUtils.convertReflectionExceptionToUnchecked(e);
+		}
+	}
+
+	/**
+	 * 调用方法, 反射异常转换为unchecked exception.
+	 */
+	public static Object invoke(final Method method, final Object target, final Object... args) {
+		try {
+			return method.invoke(target, args);
+		} catch (Exception e) {
+			throw ReflectionUtils.convertReflectionExceptionToUnchecked(e);
+		}
+	}
+
+	private static ClassAccessors getClassAccessors(Class<?> clazz) {
+		Assert.notNull(clazz, "clazz不能为空");
+		ClassAccessors accessors = registry.get(clazz);
+		if (accessors == null) {
+			ClassAccessors newAccessors = new ClassAccessors();
+			accessors = registry.putIfAbsent(clazz, newAccessors);
+			if (accessors == null) {
+				accessors = newAccessors;
+			}
+		}
+		return accessors;
+	}
+
+	private static Object findField(Class<?> clazz, String fieldName) {
+		for (Class<?> superClass = clazz; superClass != null && superClass != Object.class; superClass = superClass
+				.getSuperclass()) {
+			try {
+				Field field = superClass.getDeclaredField(fieldName);
+				field.setAccessible(true);
+				return field;
+			} catch (NoSuchFieldException e) {//NOSONAR
+				// Field不在当前类定义,继续向上转型
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	private static Object findMethod(Class<?> clazz, String methodName, Class<?>[] parameterTypes) {
+		for (Class<?> superClass = clazz; superClass != null && superClass != Object.class; superClass = superClass
+				.getSuperclass()) {
+			try {
+				Method method = superClass.getDeclaredMethod(methodName, parameterTypes);
+				method.setAccessible(true);
+				return method;
+			} catch (NoSuchMethodException e) {//NOSONAR
+				// Method不在当前类定义,继续向上转型
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	private static Object findSingleParameterMethod(Class<?> clazz, String methodName) {
+		for (Class<?> superClass = clazz; superClass != null && superClass != Object.class; superClass = superClass
+				.getSuperclass()) {
+			for (Method method : superClass.getDeclaredMethods()) {
+				if (method.getName().equals(methodName) && method.getParameterTypes().length == 1) {
+					method.setAccessible(true);
+					return method;
+				}
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	private static String buildMethodKey(String methodName, Class<?>[] parameterTypes) {
+		if (parameterTypes == null || parameterTypes.length == 0) {
+			return methodName;
+		}
+		StringBuilder sb = new StringBuilder(methodName).append("(");
+		for (Class<?> parameterType : parameterTypes) {
+			sb.append(parameterType.getName()).append(",");
+		}
+		return sb.append(")").toString();
+	}
+
+	private static class ClassAccessors {
+
+		private final ConcurrentMap<String, Object> fields = new ConcurrentHashMap<String, Object>();
+
+		private final ConcurrentMap<String, Object> methods = new ConcurrentHashMap<String, Object>();
+
+		private final ConcurrentMap<String, Object> readMethods = new ConcurrentHashMap<String, Object>();
+
+		private final ConcurrentMap<String, Object> writeMethods = new ConcurrentHashMap<String, Object>();
+
+		private final ConcurrentMap<Class<?>, Object> fieldLists = new ConcurrentHashMap<Class<?>, Object>();
+	}
+}
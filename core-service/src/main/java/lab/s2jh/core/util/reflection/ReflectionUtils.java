@@ -90,20 +90,11 @@ public class ReflectionUtils {
 	 * 循环向上转型, 获取对象的DeclaredField,	 并强制设置为可访问.
 	 * 
 	 * 如向上转型到Object仍无法找到, 返回null.
+	 * 解析结果由 {@link AccessorRegistry} 缓存.
 	 */
 	public static Field getAccessibleField(final Object obj, final String fieldName) {
 		Assert.notNull(obj, "object不能为空");
-		Assert.hasText(fieldName, "fieldName");
-		for (Class<?> superClass = obj.getClass(); superClass != Object.class; superClass = superClass.getSuperclass()) {
-			try {
-				Field field = superClass.getDeclaredField(fieldName);
-				field.setAccessible(true);
-				return field;
-			} catch (NoSuchFieldException e) {//NOSONAR
-				// Field不在当前类定义,继续向上转型
-			}
-		}
-		return null;
+		return AccessorRegistry.getField(obj.getClass(), fieldName);
 	}
 
 	/**
@@ -129,24 +120,12 @@ public class ReflectionUtils {
 	 * 如向上转型到Object仍无法找到, 返回null.
 	 * 
 	 * 用于方法需要被多次调用的情况. 先使用本函数先取得Method,然后调用Method.invoke(Object obj, Object... args)
+	 * 解析结果由 {@link AccessorRegistry} 缓存.
 	 */
 	public static Method getAccessibleMethod(final Object obj, final String methodName,
 			final Class<?>... parameterTypes) {
 		Assert.notNull(obj, "object不能为空");
-
-		for (Class<?> superClass = obj.getClass(); superClass != Object.class; superClass = superClass.getSuperclass()) {
-			try {
-				Method method = superClass.getDeclaredMethod(methodName, parameterTypes);
-
-				method.setAccessible(true);
-
-				return method;
-
-			} catch (NoSuchMethodException e) {//NOSONAR
-				// Method不在当前类定义,继续向上转型
-			}
-		}
-		return null;
+		return AccessorRegistry.getMethod(obj.getClass(), methodName, parameterTypes);
 	}
 
 	/**
@@ -0,0 +1,268 @@
+package lab.s2jh.core.web;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.persistence.Column;
+import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+import lab.s2jh.core.annotation.MetaData;
+import lab.s2jh.core.entity.BaseEntity;
+import lab.s2jh.core.entity.PersistableEntity;
+import lab.s2jh.core.exception.WebException;
+import lab.s2jh.core.util.reflection.AccessorRegistry;
+import lab.s2jh.core.web.json.DateJsonSerializer;
+import lab.s2jh.core.web.json.DateTimeJsonSerializer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.validator.constraints.Email;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.Maps;
+
+/**
+ * Controller元数据：Action名称、泛型实体类型、表格编辑校验规则、版本对比属性等
+ * 只依赖Controller类定义，每个Controller类只在首次获取时(一般由 {@link ControllerMetadataInitializer} 在应用启动时预先)计算一次，
+ * 之后均为不可变对象，请求处理过程直接获取无需再做反射解析
+ */
+public final class ControllerMetadata {
+
+    private static final String ACTION_SUFFIX = "Controller";
+
+    private static final ConcurrentMap<Class<?>, ControllerMetadata> registry = new ConcurrentHashMap<Class<?>, ControllerMetadata>();
+
+    private final String actionName;
+
+    private final Class<?> entityClass;
+
+    private final Class<?> entityIdClass;
+
+    private final Map<String, Object> validationRules;
+
+    private final Map<Field, String> revisionFields;
+
+    private ControllerMetadata(Class<?> controllerClass) {
+        this.actionName = buildActionName(controllerClass);
+        Type genericClz = controllerClass.getGenericSuperclass();
+        if (genericClz instanceof ParameterizedType) {
+            Type[] types = ((ParameterizedType) genericClz).getActualTypeArguments();
+            this.entityClass = (Class<?>) types[0];
+            this.entityIdClass = (Class<?>) types[1];
+            this.validationRules = Collections.unmodifiableMap(buildValidationRules(entityClass));
+            this.revisionFields = Collections.unmodifiableMap(buildRevisionFields(entityClass));
+        } else {
+            this.entityClass = null;
+            this.entityIdClass = null;
+            this.validationRules = Collections.emptyMap();
+            this.revisionFields = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * 获取Controller类对应元数据，首次获取时计算并缓存
+     */
+    public static ControllerMetadata get(Class<?> controllerClass) {
+        ControllerMetadata metadata = registry.get(controllerClass);
+        if (metadata == null) {
+            try {
+                metadata = new ControllerMetadata(controllerClass);
+            } catch (Exception e) {
+                throw new WebException(e.getMessage(), e);
+            }
+            ControllerMetadata existing = registry.putIfAbsent(controllerClass, metadata);
+            if (existing != null) {
+                metadata = existing;
+            }
+        }
+        return metadata;
+    }
+
+    public String getActionName() {
+        return actionName;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public Class<?> getEntityIdClass() {
+        return entityIdClass;
+    }
+
+    /**
+     * 表格数据编辑校验规则，key=属性名称，value=规则集合
+     */
+    public Map<String, Object> getValidationRules() {
+        return validationRules;
+    }
+
+    /**
+     * 版本对比属性，key=属性定义，value=属性显示名称
+     */
+    public Map<Field, String> getRevisionFields() {
+        return revisionFields;
+    }
+
+    /**
+     * 按照Struts Convention插件默认规则计算Action名称：去除Controller后缀，驼峰转换为小写中横线分隔
+     */
+    private static String buildActionName(Class<?> controllerClass) {
+        String actionName = controllerClass.getSimpleName();
+        if (actionName.equals(ACTION_SUFFIX))
+            throw new IllegalStateException("The action name cannot be the same as the action suffix [" + ACTION_SUFFIX
+                    + "]");
+
+        // Truncate Action suffix if found
+        if (actionName.endsWith(ACTION_SUFFIX)) {
+            actionName = actionName.substring(0, actionName.length() - ACTION_SUFFIX.length());
+        }
+
+        // Convert to underscores
+        char[] ca = actionName.toCharArray();
+        StringBuilder build = new StringBuilder("" + ca[0]);
+        boolean lower = true;
+        for (int i = 1; i < ca.length; i++) {
+            char c = ca[i];
+            if (Character.isUpperCase(c) && lower) {
+                build.append("-");
+                lower = false;
+            } else if (!Character.isUpperCase(c)) {
+                lower = true;
+            }
+
+            build.append(c);
+        }
+
+        return build.toString().toLowerCase();
+    }
+
+    private static Map<Field, String> buildRevisionFields(Class<?> entityClass) {
+        Map<Field, String> revisionFields = Maps.newLinkedHashMap();
+        for (Field field : entityClass.getDeclaredFields()) {
+            MetaData metaData = field.getAnnotation(MetaData.class);
+            if (metaData != null && metaData.comparable()) {
+                revisionFields.put(field, metaData.value());
+            }
+        }
+        return revisionFields;
+    }
+
+    /**
+     * 支持的转换规则列表：
+     * <ul>
+     * <li>@Email   email电子邮件格式</li>
+     * <li>@Column(nullable=false)   required数据必须</li>
+     * </ul>
+     */
+    private static Map<String, Object> buildValidationRules(Class<?> entityClass) {
+        Map<String, Object> nameRules = Maps.newHashMap();
+        for (Field field : AccessorRegistry.getFields(entityClass, BaseEntity.class)) {
+            if (Modifier.isStatic(field.getModifiers()) || !Modifier.isPrivate(field.getModifiers())
+                    || Collection.class.isAssignableFrom(field.getType())) {
+                continue;
+            }
+            String name = field.getName();
+            if ("id".equals(name)) {
+                continue;
+            }
+            Map<String, Object> rules = Maps.newHashMap();
+
+            MetaData metaData = field.getAnnotation(MetaData.class);
+            if (metaData != null) {
+                String tooltips = metaData.tooltips();
+                if (StringUtils.isNotBlank(tooltips)) {
+                    rules.put("tooltips", tooltips);
+                }
+            }
+
+            Method method = AccessorRegistry.getMethod(entityClass, "get" + StringUtils.capitalize(name));
+
+            if (method != null) {
+                Class<?> retType = method.getReturnType();
+                Column column = method.getAnnotation(Column.class);
+
+                if (column != null) {
+                    if (retType != Boolean.class && column.nullable() == false) {
+                        rules.put("required", true);
+                    }
+                    if (column.unique() == true) {
+                        rules.put("unique", true);
+                    }
+                    if (column.updatable() == false) {
+                        rules.put("readonly", true);
+                    }
+                    if (column.length() > 0 && retType == String.class && method.getAnnotation(Lob.class) == null) {
+                        rules.put("maxlength", column.length());
+                    }
+                }
+
+                JoinColumn joinColumn = method.getAnnotation(JoinColumn.class);
+                if (joinColumn != null) {
+                    if (joinColumn.nullable() == false) {
+                        rules.put("required", true);
+                    }
+                }
+
+                if (retType == Date.class) {
+                    JsonSerialize jsonSerialize = method.getAnnotation(JsonSerialize.class);
+                    if (jsonSerialize != null) {
+                        if (DateJsonSerializer.class == jsonSerialize.using()) {
+                            rules.put("date", true);
+                        } else if (DateTimeJsonSerializer.class == jsonSerialize.using()) {
+                            rules.put("timestamp", true);
+                        }
+                    } else {
+                        rules.put("date", true);
+                    }
+                } else if (retType == BigDecimal.class) {
+                    rules.put("number", true);
+                } else if (retType == Integer.class || retType == Long.class) {
+                    rules.put("integer", true);
+                }
+
+                Size size = method.getAnnotation(Size.class);
+                if (size != null) {
+                    if (size.min() > 0) {
+                        rules.put("minlength", size.min());
+                    }
+                    if (size.max() < Integer.MAX_VALUE) {
+                        rules.put("maxlength", size.max());
+                    }
+                }
+
+                Email email = method.getAnnotation(Email.class);
+                if (email != null) {
+                    rules.put("email", true);
+                }
+
+                Pattern pattern = method.getAnnotation(Pattern.class);
+                if (pattern != null) {
+                    rules.put("regex", pattern.regexp());
+                }
+
+                if (rules.size() > 0) {
+                    Map<String, Object> immutableRules = Collections.unmodifiableMap(rules);
+                    nameRules.put(name, immutableRules);
+                    //如果是实体对象类型，一般表单元素name都定义为entity.id，因此额外追加对应id属性校验规则
+                    if (PersistableEntity.class.isAssignableFrom(field.getType())) {
+                        nameRules.put(name + ".id", immutableRules);
+                    }
+                }
+            }
+        }
+        return nameRules;
+    }
+}
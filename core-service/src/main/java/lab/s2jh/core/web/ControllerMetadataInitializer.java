@@ -0,0 +1,40 @@
+package lab.s2jh.core.web;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link ControllerMetadata} 预先初始化：应用启动时扫描全部 {@link PersistableController} 子类并计算对应元数据，
+ * 避免首次请求时才做反射解析；个别Controller解析失败只记录日志，留待请求时再次计算并抛出异常
+ */
+@Component
+public class ControllerMetadataInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ControllerMetadataInitializer.class);
+
+    private static final String BASE_PACKAGE = "lab.s2jh";
+
+    @PostConstruct
+    public void initialize() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(PersistableController.class));
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        int count = 0;
+        for (BeanDefinition beanDefinition : scanner.findCandidateComponents(BASE_PACKAGE)) {
+            try {
+                ControllerMetadata.get(ClassUtils.forName(beanDefinition.getBeanClassName(), classLoader));
+                count++;
+            } catch (Throwable e) {
+                logger.warn("Skipped controller metadata initialization for: " + beanDefinition.getBeanClassName(), e);
+            }
+        }
+        logger.info("Initialized controller metadata for {} controllers", count);
+    }
+}
@@ -1,63 +1,67 @@
 package lab.s2jh.core.web;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.Writer;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
-import javax.persistence.Column;
 import javax.persistence.EntityNotFoundException;
-import javax.persistence.JoinColumn;
-import javax.persistence.Lob;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.validation.constraints.Pattern;
-import javax.validation.constraints.Size;
 
 import lab.s2jh.core.annotation.MetaData;
 import lab.s2jh.core.audit.envers.EntityRevision;
 import lab.s2jh.core.audit.envers.ExtDefaultRevisionEntity;
 import lab.s2jh.core.audit.envers.ExtRevisionListener;
-import lab.s2jh.core.entity.BaseEntity;
 import lab.s2jh.core.entity.PersistableEntity;
 import lab.s2jh.core.entity.def.OperationAuditable;
 import lab.s2jh.core.exception.WebException;
 import lab.s2jh.core.pagination.GroupPropertyFilter;
 import lab.s2jh.core.pagination.PropertyFilter;
+import lab.s2jh.core.pagination.PropertyFilter.MatchType;
+import lab.s2jh.core.security.AuthContextHolder;
 import lab.s2jh.core.service.BaseService;
+import lab.s2jh.core.service.ExportJob;
+import lab.s2jh.core.service.ExportJobService;
+import lab.s2jh.core.service.QueryResultCache;
 import lab.s2jh.core.util.DateUtils;
 import lab.s2jh.core.util.ExtStringUtils;
-import lab.s2jh.core.web.json.DateJsonSerializer;
-import lab.s2jh.core.web.json.DateTimeJsonSerializer;
+import lab.s2jh.core.util.reflection.AccessorRegistry;
+import lab.s2jh.core.web.rest.VersionedHttpHeaders;
+import lab.s2jh.core.web.view.CompactPage;
 import lab.s2jh.core.web.view.OperationResult;
 import net.sf.jxls.transformer.XLSTransformer;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
-import org.apache.commons.lang3.reflect.MethodUtils;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.struts2.ServletActionContext;
 import org.apache.struts2.rest.DefaultHttpHeaders;
 import org.apache.struts2.rest.HttpHeaders;
 import org.hibernate.envers.RevisionType;
 import org.hibernate.proxy.pojo.javassist.JavassistLazyInitializer;
-import org.hibernate.validator.constraints.Email;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
@@ -65,9 +69,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
-import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -84,9 +91,44 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
     /** 请求URL可提供此参数指定转向特定JSP页面，如有相同处理方法返回相同数据，但是不同业务功能需要按照不同页面显示则可以指定此参数转向特定显示JSP页面*/
     protected static final String PARAM_NAME_FOR_FORWARD_TO = "_to_";
 
-    /** 分页查询方法特定的数据处理格式标识参数，默认标识返回查询JSON数据，可指定如xls标识导出对应的（不分页）查询数据 */
+    /** 分页查询方法特定的数据处理格式标识参数，默认标识返回查询JSON数据，可指定如xls标识导出对应的（不分页）查询数据，csv/tsv标识以文本格式流式导出 */
     protected static final String PARAM_NAME_FOR_EXPORT_FORMAT = "_format_";
 
+    /** Excel导出文件类型 */
+    protected static final String CONTENT_TYPE_XLS = "application/vnd.ms-excel";
+
+    /** Excel 97-2003格式单个工作表最大行数，超出则续写到新工作表 */
+    private static final int XLS_SHEET_MAX_ROWS = 65535;
+
+    /** 分页查询方法指定返回属性列表参数，以逗号分隔，如id,code,commodity.title，指定后以投影方式只查询返回对应属性数据 */
+    protected static final String PARAM_NAME_FOR_GRID_COLUMNS = "_columns_";
+
+    /** 分页查询方法指定以紧凑数组格式返回数据的列名列表参数，以逗号分隔，数据结构参考 {@link CompactPage} */
+    protected static final String PARAM_NAME_FOR_GRID_COMPACT = "_compact_";
+
+    /** 批量操作每批处理的记录数量，同时也是每次IN查询的主键数量上限 */
+    protected static final int BATCH_PROCESS_SIZE = 200;
+
+    /** 以投影方式查询的下拉框选项数据最大返回记录数，数据量更大的场景应使用Autocomplete方式按输入查询 */
+    protected static final int SELECT_OPTIONS_MAX_SIZE = 1000;
+
+    /** 用于获取实体数据版本，支持下拉框选项等数据基于ETag的客户端缓存 */
+    @Autowired(required = false)
+    private QueryResultCache queryResultCache;
+
+    /** 批量数据处理按批次开启事务 */
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    /** 查询数据导出以后台任务方式执行，未配置则直接在当前请求中输出 */
+    @Autowired(required = false)
+    private ExportJobService exportJobService;
+
+    /** 后台导出任务执行过程中的当前任务及其结果文件输出流，为空表示直接输出到Response */
+    private ExportJob exportJob;
+
+    private OutputStream exportOutputStream;
+
     /** 子类指定泛型对应的实体Service接口对象 */
     abstract protected BaseService<T, ID> getEntityService();
 
@@ -103,39 +145,14 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
     protected Collection<T> bindingEntities;
 
     public String getActionName() {
+        return getControllerMetadata().getActionName();
+    }
 
-        //TODO 后期考虑优化为直接注入Struts的ActionNameBuilder方式
-        String actionName = this.getClass().getSimpleName();
-        String actionSuffix = "Controller";
-        if (actionName.equals(actionSuffix))
-            throw new IllegalStateException("The action name cannot be the same as the action suffix [" + actionSuffix
-                    + "]");
-
-        // Truncate Action suffix if found
-        if (actionName.endsWith(actionSuffix)) {
-            actionName = actionName.substring(0, actionName.length() - actionSuffix.length());
-        }
-
-        // Convert to underscores
-        char[] ca = actionName.toCharArray();
-        StringBuilder build = new StringBuilder("" + ca[0]);
-        boolean lower = true;
-        for (int i = 1; i < ca.length; i++) {
-            char c = ca[i];
-            if (Character.isUpperCase(c) && lower) {
-                build.append("-");
-                lower = false;
-            } else if (!Character.isUpperCase(c)) {
-                lower = true;
-            }
-
-            build.append(c);
-        }
-
-        actionName = build.toString();
-        actionName = actionName.toLowerCase();
-
-        return actionName;
+    /**
+     * 当前Controller类对应的预先计算元数据，请求处理过程直接获取无需反射解析
+     */
+    protected ControllerMetadata getControllerMetadata() {
+        return ControllerMetadata.get(getClass());
     }
 
     /** 除ModelDriven返回的model对象以外，额外的控制参数Map结构数据，如根据业务逻辑控制页面按钮的disabled状态等 */
@@ -150,23 +167,14 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
     }
 
     /**
-     * 初始化构造方法，计算相关泛型对象
+     * 初始化构造方法，从Controller元数据获取相关泛型对象
      */
     @SuppressWarnings("unchecked")
     public PersistableController() {
         super();
-        // 通过反射取得Entity的Class.
-        try {
-            Object genericClz = getClass().getGenericSuperclass();
-            if (genericClz instanceof ParameterizedType) {
-                entityClass = (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass())
-                        .getActualTypeArguments()[0];
-                entityIdClass = (Class<ID>) ((ParameterizedType) getClass().getGenericSuperclass())
-                        .getActualTypeArguments()[1];
-            }
-        } catch (Exception e) {
-            throw new WebException(e.getMessage(), e);
-        }
+        ControllerMetadata controllerMetadata = getControllerMetadata();
+        entityClass = (Class<T>) controllerMetadata.getEntityClass();
+        entityIdClass = (Class<ID>) controllerMetadata.getEntityIdClass();
     }
 
     // ----------------------------------  
@@ -259,6 +267,8 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
             return (ID) entityId;
         } else if (Long.class.isAssignableFrom(entityIdClass)) {
             return (ID) (Long.valueOf(entityId));
+        } else if (UUID.class.isAssignableFrom(entityIdClass)) {
+            return (ID) UUID.fromString(entityId);
         } else {
             throw new IllegalStateException("Undefine entity ID class: " + entityIdClass);
         }
@@ -461,24 +471,61 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
     // -----------Delete删除数据处理相关逻辑------------
     // ----------------------------------------------
     /**
-     * 将ids=123,234,345等格式参数按照逗号切分并转换查询对应的Entity对象集合，方便使用
-     * 一般用于如删除等批量操作
-     * @return 实体对象集合
+     * 将ids=123,234,345等格式参数按照逗号切分并转换为实体主键类型集合
+     * @return 主键集合
+     */
+    protected List<ID> getParameterEntityIds() {
+        List<ID> ids = Lists.newArrayList();
+        for (String id : getParameterIds()) {
+            ids.add(convertToEntityId(id));
+        }
+        return ids;
+    }
+
+    /**
+     * 将字符串参数值转换为实体主键类型
      */
     @SuppressWarnings("unchecked")
+    protected ID convertToEntityId(String id) {
+        Object realId = null;
+        if (String.class.isAssignableFrom(entityIdClass)) {
+            realId = id;
+        } else if (Long.class.isAssignableFrom(entityIdClass)) {
+            realId = Long.valueOf(id);
+        } else if (UUID.class.isAssignableFrom(entityIdClass)) {
+            realId = UUID.fromString(id);
+        } else {
+            throw new IllegalStateException("Undefine entity ID class: " + entityIdClass);
+        }
+        return (ID) realId;
+    }
+
+    /**
+     * 将ids=123,234,345等格式参数按照逗号切分并转换查询对应的Entity对象集合，方便使用
+     * 一般用于如删除等批量操作；按 {@link #BATCH_PROCESS_SIZE} 分批以IN查询加载，而不是逐条主键查询
+     * @return 实体对象集合，已不存在的数据直接忽略
+     */
     protected Collection<T> getEntitiesByParameterIds() {
-        Collection<T> entities = new ArrayList<T>();
-        for (String id : getParameterIds()) {
-            Object realId = null;
-            if (String.class.isAssignableFrom(entityIdClass)) {
-                realId = id;
-            } else if (Long.class.isAssignableFrom(entityIdClass)) {
-                realId = Long.valueOf(id);
-            } else {
-                throw new IllegalStateException("Undefine entity ID class: " + entityIdClass);
+        return findEntitiesByIds(getParameterEntityIds());
+    }
+
+    /**
+     * 按主键集合分批IN查询，返回结果按主键集合顺序排列
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> findEntitiesByIds(List<ID> ids) {
+        List<T> entities = Lists.newArrayListWithCapacity(ids.size());
+        for (List<ID> batchIds : Lists.partition(ids, BATCH_PROCESS_SIZE)) {
+            Map<ID, T> entityMap = Maps.newHashMap();
+            for (T entity : getEntityService().findAll((ID[]) batchIds.toArray(new Serializable[batchIds.size()]))) {
+                entityMap.put(entity.getId(), entity);
+            }
+            for (ID id : batchIds) {
+                T entity = entityMap.get(id);
+                if (entity != null) {
+                    entities.add(entity);
+                }
             }
-            T entity = getEntityService().findOne((ID) realId);
-            entities.add(entity);
         }
         return entities;
     }
@@ -548,6 +595,10 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
 
     /**
      * 供子类调用的批量数据处理回调方法
+     * 选取记录按 {@link #BATCH_PROCESS_SIZE} 分批，每批在同一事务中IN查询加载并逐条回调处理，整批统一提交；
+     * 批次内某条记录处理失败则整批回滚并记录该条失败，其后尚未处理的记录以新事务继续处理，其前已处理的记录随回滚撤销后以独立事务重新处理一次，
+     * 因此回调中发送消息、调用外部接口等非事务性操作可能对同一记录重复执行，需保证幂等或放到事务提交之后执行
+     * 已不存在的记录直接忽略，不计入成功记录数
      * @param op 操作方法名称，如“取消”
      * @param entityCallback 回调匿名接口
      * @return
@@ -556,30 +607,96 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
         //删除失败的id和对应消息以Map结构返回，可用于前端批量显示错误提示和计算表格组件更新删除行项
         Map<ID, String> errorMessageMap = Maps.newLinkedHashMap();
 
-        Collection<T> entities = this.getEntitiesByParameterIds();
-        for (T entity : entities) {
-            try {
-                entityCallback.processEntity(entity);
-            } catch (Exception e) {
-                logger.warn("entity batch operation failure", e);
-                errorMessageMap.put(entity.getId(), e.getMessage());
+        int successSize = 0;
+        for (List<ID> batchIds : Lists.partition(getParameterEntityIds(), BATCH_PROCESS_SIZE)) {
+            if (transactionManager == null) {
+                for (T entity : findEntitiesByIds(batchIds)) {
+                    try {
+                        entityCallback.processEntity(entity);
+                        successSize++;
+                    } catch (Exception e) {
+                        logger.warn("entity batch operation failure", e);
+                        errorMessageMap.put(entity.getId(), e.getMessage());
+                    }
+                }
+                continue;
             }
+            successSize += processEntitiesInTransaction(batchIds, entityCallback, errorMessageMap);
         }
 
         int rejectSize = errorMessageMap.size();
         if (rejectSize == 0) {
-            setModel(OperationResult.buildSuccessResult("成功" + op + "所选选取记录:" + entities.size() + "条"));
+            setModel(OperationResult.buildSuccessResult("成功" + op + "所选选取记录:" + successSize + "条"));
         } else {
-            if (rejectSize == entities.size()) {
+            if (successSize == 0) {
                 setModel(OperationResult.buildFailureResult("所有选取记录" + op + "操作失败", errorMessageMap));
             } else {
-                setModel(OperationResult.buildWarningResult(op + "操作已处理. 成功:" + (entities.size() - rejectSize) + "条"
-                        + ",失败:" + rejectSize + "条", errorMessageMap));
+                setModel(OperationResult.buildWarningResult(op + "操作已处理. 成功:" + successSize + "条" + ",失败:"
+                        + rejectSize + "条", errorMessageMap));
             }
         }
         return buildDefaultHttpHeaders();
     }
 
+    /**
+     * 在同一事务中加载并逐条回调处理主键集合对应记录
+     * 回调处理失败则记录失败记录，失败记录之前和之后的记录分别递归以新事务处理；
+     * 加载或提交阶段失败无法定位到具体记录，则逐条以独立事务处理
+     * @return 成功处理并提交的记录数
+     */
+    private int processEntitiesInTransaction(final List<ID> ids, final EntityProcessCallbackHandler<T> entityCallback,
+            Map<ID, String> errorMessageMap) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        final List<T> entities = Lists.newArrayList();
+        final int[] failureIndex = { -1 };
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    entities.addAll(findEntitiesByIds(ids));
+                    for (int i = 0; i < entities.size(); i++) {
+                        failureIndex[0] = i;
+                        entityCallback.processEntity(entities.get(i));
+                    }
+                    failureIndex[0] = -1;
+                }
+            });
+            return entities.size();
+        } catch (Exception e) {
+            //OpenEntityManagerInView模式下回滚之后持久化上下文中依然保留已被回调修改的对象，
+            //必须先清空，重新处理时才会从数据库重新加载，而不是对已修改对象重复回调或连带提交其他记录的修改
+            getEntityService().clearPersistenceContext();
+            int index = failureIndex[0];
+            if (index < 0) {
+                if (ids.size() == 1) {
+                    logger.warn("entity batch operation failure", e);
+                    errorMessageMap.put(ids.get(0), e.getMessage());
+                    return 0;
+                }
+                logger.debug("entity batch operation rollback, retry one by one: {}", e.getMessage());
+                int successSize = 0;
+                for (ID id : ids) {
+                    successSize += processEntitiesInTransaction(Lists.newArrayList(id), entityCallback, errorMessageMap);
+                }
+                return successSize;
+            }
+            logger.warn("entity batch operation failure", e);
+            errorMessageMap.put(entities.get(index).getId(), e.getMessage());
+            List<ID> processedIds = Lists.newArrayListWithCapacity(index);
+            for (T entity : entities.subList(0, index)) {
+                processedIds.add(entity.getId());
+            }
+            List<ID> pendingIds = Lists.newArrayListWithCapacity(entities.size() - index - 1);
+            for (T entity : entities.subList(index + 1, entities.size())) {
+                pendingIds.add(entity.getId());
+            }
+            return processEntitiesInTransaction(processedIds, entityCallback, errorMessageMap)
+                    + processEntitiesInTransaction(pendingIds, entityCallback, errorMessageMap);
+        }
+    }
+
     // --------------------------------------------- 
     // -----------findByPage分页查询处理相关逻辑------------
     // ----------------------------------------------
@@ -594,21 +711,91 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
         GroupPropertyFilter groupFilter = GroupPropertyFilter.buildFromHttpRequest(entityClass, getRequest());
         appendFilterProperty(groupFilter);
         String foramt = this.getParameter(PARAM_NAME_FOR_EXPORT_FORMAT);
+        String columns = this.getParameter(PARAM_NAME_FOR_GRID_COLUMNS);
         if ("xls".equalsIgnoreCase(foramt)) {
-            exportXlsForGrid(groupFilter, pageable.getSort());
+            final GroupPropertyFilter exportFilter = groupFilter;
+            final Sort sort = pageable.getSort();
+            final String[] exportColumns = StringUtils.split(columns, ",");
+            export(getActionName() + ".xls", CONTENT_TYPE_XLS, new ExportJobService.ExportTask() {
+                @Override
+                public void export(ExportJob job, OutputStream out) {
+                    exportXlsForGrid(exportFilter, sort, exportColumns);
+                }
+            });
+        } else if ("csv".equalsIgnoreCase(foramt) || "tsv".equalsIgnoreCase(foramt)) {
+            final GroupPropertyFilter exportFilter = groupFilter;
+            final Sort sort = pageable.getSort();
+            final String[] exportColumns = StringUtils.split(columns, ",");
+            final boolean tab = "tsv".equalsIgnoreCase(foramt);
+            export(getActionName() + (tab ? ".tsv" : ".csv"), (tab ? "text/tab-separated-values" : "text/csv")
+                    + ";charset=UTF-8", new ExportJobService.ExportTask() {
+                @Override
+                public void export(ExportJob job, OutputStream out) {
+                    exportDelimitedForGrid(exportFilter, sort, exportColumns, tab);
+                }
+            });
         } else {
-            setModel(this.getEntityService().findByPage(groupFilter, pageable));
+            Page<?> page;
+            if (StringUtils.isNotBlank(columns)) {
+                page = this.getEntityService().findByPageProjection(groupFilter, pageable,
+                        StringUtils.split(columns, ","));
+            } else {
+                Page<T> entityPage = this.getEntityService().findByPage(groupFilter, pageable);
+                //序列化输出之前批量加载当前页关联对象，避免逐行逐个关联对象触发查询
+                this.getEntityService().preloadAssociations(entityPage.getContent());
+                page = entityPage;
+            }
+            String compact = this.getParameter(PARAM_NAME_FOR_GRID_COMPACT);
+            if (StringUtils.isNotBlank(compact)) {
+                setModel(new CompactPage(page, StringUtils.split(compact, ",")));
+            } else {
+                setModel(page);
+            }
         }
         return buildDefaultHttpHeaders();
     }
 
+    /**
+     * 下拉框选项数据，基于实体数据版本及当前登录用户输出ETag，数据未变更时直接返回304；集群部署无可靠数据版本时不输出ETag
+     * 选项数据可能基于 {@link #appendFilterProperty(GroupPropertyFilter)} 按当前登录用户过滤，因此版本标识附加当前用户标识
+     */
     @MetaData(value = "下拉框选项数据")
     protected HttpHeaders selectOptions() {
+        HttpHeaders httpHeaders = new DefaultHttpHeaders();
+        String dataVersion = queryResultCache == null ? null : queryResultCache.getDataVersion(entityClass);
+        if (dataVersion != null) {
+            String version = dataVersion + "-" + Integer.toHexString(AuthContextHolder.getAuthUserPin().hashCode());
+            VersionedHttpHeaders versionedHttpHeaders = buildVersionedHttpHeaders(version);
+            if (versionedHttpHeaders.isNotModified()) {
+                return versionedHttpHeaders;
+            }
+            httpHeaders = versionedHttpHeaders;
+        }
         Sort sort = PropertyFilter.buildSortFromHttpRequest(getRequest());
         GroupPropertyFilter groupFilter = GroupPropertyFilter.buildFromHttpRequest(entityClass, getRequest());
         appendFilterProperty(groupFilter);
-        setModel(this.getEntityService().findByFilters(groupFilter, sort));
-        return new DefaultHttpHeaders();
+        String[] displayProperties = getSelectOptionDisplayProperties();
+        if (displayProperties == null || displayProperties.length == 0) {
+            setModel(this.getEntityService().findByFilters(groupFilter, sort));
+        } else {
+            //提供输入文本参数则以显示属性前缀匹配过滤
+            String term = this.getParameter(PARAM_NAME_FOR_AUTOCOMPLETE);
+            if (StringUtils.isNotBlank(term)) {
+                groupFilter.append(new PropertyFilter(MatchType.BW, displayProperties, term.trim()));
+            }
+            setModel(this.getEntityService().findSelectOptions(groupFilter, sort, SELECT_OPTIONS_MAX_SIZE,
+                    displayProperties));
+        }
+        return httpHeaders;
+    }
+
+    /**
+     * 下拉框选项数据的显示属性集合，一般对应实体getDisplay方法组成显示文本的持久化属性，如{"code","title"}
+     * 子类覆写返回之后 {@link #selectOptions()} 以投影方式只查询id及显示属性，并限定最大返回记录数 {@link #SELECT_OPTIONS_MAX_SIZE}；
+     * 默认返回null则依然查询完整实体对象集合
+     */
+    protected String[] getSelectOptionDisplayProperties() {
+        return null;
     }
 
     /**
@@ -632,27 +819,259 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
     }
 
     /**
-     * 如果业务功能支持对分页查询导出Excel组件，子类覆写此方法
-     * 基类的findByPage会根据{@link #PARAM_NAME_FOR_EXPORT_FORMAT} 自动回调此方法进行Excel数据导出
-     * @param filters 已基于Request组装好查询条件的集合对象
+     * 执行导出处理：配置了 {@link ExportJobService} 则提交后台导出任务，并以任务信息作为当前请求JSON响应，
+     * 前端轮询任务状态，完成后下载结果文件；否则直接在当前请求线程执行导出输出到Response.
+     * 后台任务执行过程中无法访问当前HTTP请求对象，导出处理所需参数需在提交前从请求获取
+     * @param fileName 下载文件名
+     * @param contentType 下载文件类型
+     * @param task 导出处理回调，通过 {@link #openExportOutputStream(String, String)} 获取输出流
+     */
+    protected void export(String fileName, String contentType, final ExportJobService.ExportTask task) {
+        if (exportJobService == null || exportOutputStream != null) {
+            try {
+                task.export(exportJob, exportOutputStream);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new WebException(e.getMessage(), e);
+            }
+            return;
+        }
+        ExportJob job = exportJobService.submit(buildExportJobKey(), fileName, contentType,
+                new ExportJobService.ExportTask() {
+                    @Override
+                    public void export(ExportJob job, OutputStream out) throws Exception {
+                        exportJob = job;
+                        exportOutputStream = out;
+                        try {
+                            task.export(job, out);
+                        } finally {
+                            exportJob = null;
+                            exportOutputStream = null;
+                        }
+                    }
+                });
+        setModel(OperationResult.buildSuccessResult("导出任务已提交，完成后自动下载", job));
+    }
+
+    /**
+     * 以Action名称及排序后的请求参数作为导出请求标识，忽略前端追加的防缓存随机参数
+     */
+    @SuppressWarnings("unchecked")
+    private String buildExportJobKey() {
+        StringBuilder key = new StringBuilder(getActionName());
+        Map<String, String[]> parameterMap = Maps.newTreeMap();
+        parameterMap.putAll((Map<String, String[]>) getRequest().getParameterMap());
+        for (Map.Entry<String, String[]> me : parameterMap.entrySet()) {
+            if ("_".equals(me.getKey()) || "nd".equals(me.getKey())) {
+                continue;
+            }
+            key.append("&").append(me.getKey()).append("=").append(StringUtils.join(me.getValue(), ","));
+        }
+        return key.toString();
+    }
+
+    /**
+     * 导出数据输出流：后台导出任务中为任务结果文件输出流，由任务统一关闭，调用方关闭无影响；
+     * 否则为设置好下载响应头的Response输出流
+     */
+    protected OutputStream openExportOutputStream(String fileName, String contentType) throws IOException {
+        if (exportOutputStream != null) {
+            exportJob.setFileName(fileName);
+            exportJob.setContentType(contentType);
+            return new CloseShieldOutputStream(exportOutputStream);
+        }
+        HttpServletResponse response = ServletActionContext.getResponse();
+        response.setHeader("Content-Disposition", "attachment;filename="
+                + new String(fileName.getBytes("GBK"), "ISO-8859-1"));
+        response.setContentType(contentType);
+        return response.getOutputStream();
+    }
+
+    /**
+     * 导出查询数据为Excel文件，基类的findByPage会根据 {@link #PARAM_NAME_FOR_EXPORT_FORMAT} 自动回调此方法，一般以后台任务方式执行.
+     * 默认实现以投影方式游标逐行读取数据，首行为属性 {@link MetaData} 标题，单个工作表超出最大行数则续写到新工作表；
+     * 如需按模板格式导出，子类覆写此方法基于参数组装好数据后调用 {@link #exportExcel(String, String, Map)}
+     * @param groupFilter 已基于Request组装好查询条件的集合对象
      * @param sort 已基于Request组装好的排序对象
-     * @param groupFilter 已基于Request组装好高级查询条件的集合对象
+     * @param columns {@link #PARAM_NAME_FOR_GRID_COLUMNS} 参数指定的属性列表，为空则导出实体全部非集合属性
+     */
+    protected void exportXlsForGrid(GroupPropertyFilter groupFilter, Sort sort, String[] columns) {
+        final Workbook workbook = new HSSFWorkbook();
+        final List<String> titles = Lists.newArrayList();
+        this.getEntityService().scrollByProjection(groupFilter, sort, columns, new BaseService.ProjectionRowHandler() {
+
+            private Sheet sheet;
+
+            @Override
+            public void handleHeader(List<String> properties) {
+                for (String property : properties) {
+                    titles.add(resolvePropertyTitle(property));
+                }
+            }
+
+            @Override
+            public void handleRow(Object[] values) {
+                if (sheet == null || sheet.getLastRowNum() >= XLS_SHEET_MAX_ROWS) {
+                    sheet = workbook.createSheet();
+                    writeXlsRow(sheet.createRow(0), titles.toArray());
+                }
+                writeXlsRow(sheet.createRow(sheet.getLastRowNum() + 1), values);
+            }
+        });
+        if (workbook.getNumberOfSheets() == 0) {
+            writeXlsRow(workbook.createSheet().createRow(0), titles.toArray());
+        }
+        OutputStream out = null;
+        try {
+            out = openExportOutputStream(getActionName() + ".xls", CONTENT_TYPE_XLS);
+            workbook.write(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new WebException(e.getMessage(), e);
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private static void writeXlsRow(Row row, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+            } else if (value instanceof Date) {
+                cell.setCellValue(DateUtils.formatTime((Date) value));
+            } else if (value instanceof Enum) {
+                cell.setCellValue(((Enum<?>) value).name());
+            } else {
+                //单元格文本长度上限
+                cell.setCellValue(StringUtils.left(String.valueOf(value), 32767));
+            }
+        }
+    }
+
+    /**
+     * 导出标题：属性定义的 {@link MetaData} 说明，未定义则直接取属性路径
+     */
+    private String resolvePropertyTitle(String property) {
+        Class<?> clazz = entityClass;
+        Field field = null;
+        for (String name : StringUtils.split(property, ".")) {
+            field = AccessorRegistry.getField(clazz, name);
+            if (field == null) {
+                return property;
+            }
+            clazz = field.getType();
+        }
+        MetaData metaData = field == null ? null : field.getAnnotation(MetaData.class);
+        return metaData == null ? property : metaData.value();
+    }
+
+    /**
+     * 以CSV或TSV文本格式导出查询数据，基于 {@link #PARAM_NAME_FOR_GRID_COLUMNS} 参数指定的属性列表以投影方式查询，
+     * 未指定则导出实体全部非集合属性；数据以数据库游标方式逐行直接写入导出输出流，内存占用与导出数据量无关.
+     * 首行为属性名称；CSV按照RFC 4180规则对包含分隔符、引号、换行的值加引号转义，NULL值输出为空；
+     * TSV对制表符、换行及反斜杠以反斜杠转义，NULL值以\N表示，便于数据库批量导入等下游处理
+     * @param groupFilter 已基于Request组装好查询条件的集合对象
+     * @param sort 已基于Request组装好的排序对象
+     * @param columns {@link #PARAM_NAME_FOR_GRID_COLUMNS} 参数指定的属性列表，为空则导出实体全部非集合属性
+     * @param tab true为TSV格式，false为CSV格式
+     */
+    protected void exportDelimitedForGrid(GroupPropertyFilter groupFilter, Sort sort, String[] columns,
+            final boolean tab) {
+        Writer writer = null;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(openExportOutputStream(getActionName()
+                    + (tab ? ".tsv" : ".csv"), (tab ? "text/tab-separated-values" : "text/csv") + ";charset=UTF-8"),
+                    "UTF-8"));
+            final Writer out = writer;
+            this.getEntityService().scrollByProjection(groupFilter, sort, columns,
+                    new BaseService.ProjectionRowHandler() {
+                        @Override
+                        public void handleHeader(List<String> properties) throws IOException {
+                            writeDelimitedRow(out, properties.toArray(), tab);
+                        }
+
+                        @Override
+                        public void handleRow(Object[] values) throws IOException {
+                            writeDelimitedRow(out, values, tab);
+                        }
+                    });
+            writer.flush();
+        } catch (IOException e) {
+            throw new WebException(e.getMessage(), e);
+        } finally {
+            IOUtils.closeQuietly(writer);
+        }
+    }
+
+    /**
+     * 按照CSV或TSV格式转义输出一行数据，行尾以换行符结束
      */
-    protected void exportXlsForGrid(GroupPropertyFilter groupFilter, Sort sort) {
-        throw new UnsupportedOperationException();
+    static void writeDelimitedRow(Writer writer, Object[] values, boolean tab) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(tab ? '\t' : ',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                if (tab) {
+                    writer.write("\\N");
+                }
+                continue;
+            }
+            String text;
+            if (value instanceof Date) {
+                text = DateUtils.formatTime((Date) value);
+            } else if (value instanceof BigDecimal) {
+                text = ((BigDecimal) value).toPlainString();
+            } else if (value instanceof Enum) {
+                text = ((Enum<?>) value).name();
+            } else {
+                text = String.valueOf(value);
+            }
+            if (tab) {
+                writer.write(StringUtils.replaceEach(text, new String[] { "\\", "\t", "\n", "\r" }, new String[] {
+                        "\\\\", "\\t", "\\n", "\\r" }));
+            } else if (StringUtils.containsAny(text, ",\"\r\n")) {
+                writer.write('"');
+                writer.write(StringUtils.replace(text, "\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\n");
     }
 
     /**
      * 基类基于子类提供的相关参数数据, 生成JXLS报表
-     * @see #exportXlsForGrid(List, Sort, GroupPropertyFilter) 此方法中基于参数组装好相关的data数据后，调用此方法生成Excel响应
+     * 在请求中直接调用并且配置了 {@link ExportJobService} 则模板转换及文件输出以后台任务执行，当前请求以任务信息JSON响应，
+     * 调用方Action方法需返回 {@link #buildDefaultHttpHeaders()}；此时dataMap中的数据需已完整加载，后台执行时不再可延迟加载关联对象
+     * @see #exportXlsForGrid(GroupPropertyFilter, Sort, String[]) 此方法中基于参数组装好相关的data数据后，调用此方法生成Excel响应
      * @param dataMap
      */
-    protected void exportExcel(String templateFileName, String exportFileName, Map<String, Object> dataMap) {
+    protected void exportExcel(final String templateFileName, final String exportFileName,
+            final Map<String, Object> dataMap) {
+        if (exportJobService != null && exportOutputStream == null) {
+            export(exportFileName, CONTENT_TYPE_XLS, new ExportJobService.ExportTask() {
+                @Override
+                public void export(ExportJob job, OutputStream out) {
+                    exportExcel(templateFileName, exportFileName, dataMap);
+                }
+            });
+            return;
+        }
         //日期格式定义
         dataMap.put("dateFormatter", new SimpleDateFormat(DateUtils.DEFAULT_DATE_FORMAT));
         dataMap.put("timeFormatter", new SimpleDateFormat(DateUtils.DEFAULT_TIME_FORMAT));
 
-        HttpServletResponse response = ServletActionContext.getResponse();
         InputStream fis = null;
         OutputStream fos = null;
         try {
@@ -664,13 +1083,10 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
             // generate the excel workbook according to the template and
             // parameters
             Workbook workbook = transformer.transformXLS(fis, dataMap);
-            String filename = exportFileName;
-            filename = new String(filename.getBytes("GBK"), "ISO-8859-1");
-            response.setHeader("Content-Disposition", "attachment;filename=" + filename);
-            response.setContentType("application/vnd.ms-excel;charset=utf-8");
-            fos = response.getOutputStream();
+            fos = openExportOutputStream(exportFileName, CONTENT_TYPE_XLS + ";charset=utf-8");
             // output the generated excel file
             workbook.write(fos);
+            fos.flush();
         } catch (Exception e) {
             throw new WebException(e.getMessage(), e);
         } finally {
@@ -714,28 +1130,11 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
             groupPropertyFilter.append(new PropertyFilter(entityClass, additionalName2, additionalValue2));
         }
 
-        List<T> entities = getEntityService().findByFilters(groupPropertyFilter);
-        if (entities == null || entities.size() == 0) {// 未查到重复数据
-            this.setModel(Boolean.TRUE);
-        } else {
-            if (entities.size() == 1) {// 查询到一条重复数据
-                String id = getRequest().getParameter("id");
-                if (StringUtils.isNotBlank(id)) {
-                    Serializable entityId = entities.get(0).getId();
-                    logger.debug("Check Unique Entity ID = {}", entityId);
-                    if (id.equals(entityId.toString())) {// 查询到数据是当前更新数据，不算已存在
-                        this.setModel(Boolean.TRUE);
-                    } else {// 查询到数据不是当前更新数据，算已存在
-                        this.setModel(Boolean.FALSE);
-                    }
-                } else {// 没有提供Sid主键，说明是创建记录，则算已存在
-                    this.setModel(Boolean.FALSE);
-                }
-            } else {// 查询到多余一条重复数据，说明数据库数据本身有问题
-                this.setModel(Boolean.FALSE);
-                throw new WebException("error.check.unique.duplicate: " + element + "=" + value);
-            }
-        }
+        // 提供id主键说明是更新记录，查询到的数据是当前更新数据则不算已存在；没有提供主键说明是创建记录
+        String id = getRequest().getParameter("id");
+        ID excludeId = StringUtils.isNotBlank(id) ? convertToEntityId(id) : null;
+        // 只做存在性判断，不加载重复数据实体对象
+        this.setModel(!getEntityService().exists(groupPropertyFilter, excludeId));
         return buildDefaultHttpHeaders();
     }
 
@@ -755,14 +1154,7 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
      * @return
      */
     public Map<Field, String> getRevisionFields() {
-        Map<Field, String> revisionFields = Maps.newLinkedHashMap();
-        for (Field field : entityClass.getDeclaredFields()) {
-            MetaData metaData = field.getAnnotation(MetaData.class);
-            if (metaData != null && metaData.comparable()) {
-                revisionFields.put(field, metaData != null ? metaData.value() : field.getName().toUpperCase());
-            }
-        }
-        return revisionFields;
+        return getControllerMetadata().getRevisionFields();
     }
 
     /**
@@ -826,23 +1218,14 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
             Map<String, String> revEntityProperty = Maps.newHashMap();
             revEntityProperty.put("name", me.getValue());
             if (revLeftEntity != null) {
-                try {
-                    Object value = FieldUtils.readDeclaredField(revLeftEntity.getEntity(), field.getName(), true);
-                    String valueDisplay = convertPropertyDisplay(revLeftEntity.getEntity(), field, value);
-                    revEntityProperty.put("revLeftPropertyValue", valueDisplay);
-                } catch (IllegalAccessException e) {
-                    throw new WebException(e.getMessage(), e);
-                }
+                Object value = AccessorRegistry.readField(revLeftEntity.getEntity(), field.getName());
+                String valueDisplay = convertPropertyDisplay(revLeftEntity.getEntity(), field, value);
+                revEntityProperty.put("revLeftPropertyValue", valueDisplay);
             }
             if (revRightEntity != null) {
-                try {
-                    Object value = FieldUtils.readDeclaredField(revRightEntity.getEntity(), field.getName(), true);
-                    String valueDisplay = convertPropertyDisplay(revRightEntity.getEntity(), field, value);
-                    revEntityProperty.put("revRightPropertyValue", valueDisplay);
-                } catch (IllegalAccessException e) {
-                    throw new WebException(e.getMessage(), e);
-                }
-
+                Object value = AccessorRegistry.readField(revRightEntity.getEntity(), field.getName());
+                String valueDisplay = convertPropertyDisplay(revRightEntity.getEntity(), field, value);
+                revEntityProperty.put("revRightPropertyValue", valueDisplay);
             }
             revEntityProperties.add(revEntityProperty);
         }
@@ -874,14 +1257,14 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
                 //此处做Hack处理：如果没有找到关联Audit记录，则查询关联主对象记录
                 try {
                     //从Hibernate AOP增强对象反查对应实体对象数据
-                    JavassistLazyInitializer jli = (JavassistLazyInitializer) FieldUtils.readDeclaredField(value,
-                            "handler", true);
+                    JavassistLazyInitializer jli = (JavassistLazyInitializer) AccessorRegistry.readField(value,
+                            "handler");
                     Class entityClass = jli.getPersistentClass();
                     Serializable id = jli.getIdentifier();
                     Object obj = getEntityService().findEntity(entityClass, id);
                     PersistableEntity auditTargetEntity = (PersistableEntity) obj;
                     label = auditTargetEntity.getDisplay();
-                } catch (IllegalAccessException iae) {
+                } catch (IllegalArgumentException iae) {
                     logger.warn(e.getMessage());
                 }
             }
@@ -890,133 +1273,12 @@ public abstract class PersistableController<T extends PersistableEntity<ID>, ID
         return String.valueOf(value);
     }
 
-    private static Map<Class<?>, Map<String, Object>> entityValidationRulesMap = Maps.newHashMap();
-
     /**
-     * 支持的转换规则列表：
-     * <ul>
-     * <li>@Email   email电子邮件格式</li>
-     * <li>@Column(nullable=false)   required数据必须</li>
-     * </ul> 
+     * 支持的转换规则列表参考 {@link ControllerMetadata#getValidationRules()}
      */
     @MetaData(value = "表格数据编辑校验规则")
     public HttpHeaders buildValidateRules() {
-        try {
-            Map<String, Object> nameRules = entityValidationRulesMap.get(entityClass);
-            if (nameRules == null) {
-                nameRules = Maps.newHashMap();
-                entityValidationRulesMap.put(entityClass, nameRules);
-
-                Class<?> clazz = entityClass;
-                Set<Field> fields = Sets.newHashSet(clazz.getDeclaredFields());
-                clazz = clazz.getSuperclass();
-                while (!clazz.equals(BaseEntity.class) && !clazz.equals(Object.class)) {
-                    fields.addAll(Sets.newHashSet(clazz.getDeclaredFields()));
-                    clazz = clazz.getSuperclass();
-                }
-
-                for (Field field : fields) {
-                    if (Modifier.isStatic(field.getModifiers()) || !Modifier.isPrivate(field.getModifiers())
-                            || Collection.class.isAssignableFrom(field.getType())) {
-                        continue;
-                    }
-                    String name = field.getName();
-                    if ("id".equals(name)) {
-                        continue;
-                    }
-                    Map<String, Object> rules = Maps.newHashMap();
-
-                    MetaData metaData = field.getAnnotation(MetaData.class);
-                    if (metaData != null) {
-                        String tooltips = metaData.tooltips();
-                        if (StringUtils.isNotBlank(tooltips)) {
-                            rules.put("tooltips", tooltips);
-                        }
-                    }
-
-                    Method method = MethodUtils.getAccessibleMethod(entityClass, "get" + StringUtils.capitalize(name),
-                            null);
-
-                    if (method != null) {
-                        Class<?> retType = method.getReturnType();
-                        Column column = method.getAnnotation(Column.class);
-
-                        if (column != null) {
-                            if (retType != Boolean.class && column.nullable() == false) {
-                                rules.put("required", true);
-                            }
-                            if (column.unique() == true) {
-                                rules.put("unique", true);
-                            }
-                            if (column.updatable() == false) {
-                                rules.put("readonly", true);
-                            }
-                            if (column.length() > 0 && retType == String.class
-                                    && method.getAnnotation(Lob.class) == null) {
-                                rules.put("maxlength", column.length());
-                            }
-                        }
-
-                        JoinColumn joinColumn = method.getAnnotation(JoinColumn.class);
-                        if (joinColumn != null) {
-                            if (joinColumn.nullable() == false) {
-                                rules.put("required", true);
-                            }
-                        }
-
-                        if (retType == Date.class) {
-                            JsonSerialize jsonSerialize = method.getAnnotation(JsonSerialize.class);
-                            if (jsonSerialize != null) {
-                                if (DateJsonSerializer.class == jsonSerialize.using()) {
-                                    rules.put("date", true);
-                                } else if (DateTimeJsonSerializer.class == jsonSerialize.using()) {
-                                    rules.put("timestamp", true);
-                                }
-                            } else {
-                                rules.put("date", true);
-                            }
-                        } else if (retType == BigDecimal.class) {
-                            rules.put("number", true);
-                        } else if (retType == Integer.class || retType == Long.class) {
-                            rules.put("integer", true);
-                        }
-
-                        Size size = method.getAnnotation(Size.class);
-                        if (size != null) {
-                            if (size.min() > 0) {
-                                rules.put("minlength", size.min());
-                            }
-                            if (size.max() < Integer.MAX_VALUE) {
-                                rules.put("maxlength", size.max());
-                            }
-                        }
-
-                        Email email = method.getAnnotation(Email.class);
-                        if (email != null) {
-                            rules.put("email", true);
-                        }
-
-                        Pattern pattern = method.getAnnotation(Pattern.class);
-                        if (pattern != null) {
-                            rules.put("regex", pattern.regexp());
-                        }
-
-                        if (rules.size() > 0) {
-                            nameRules.put(name, rules);
-                            //如果是实体对象类型，一般表单元素name都定义为entity.id，因此额外追加对应id属性校验规则
-                            if (PersistableEntity.class.isAssignableFrom(field.getType())) {
-                                nameRules.put(name + ".id", rules);
-                            }
-                        }
-                    }
-                }
-            }
-            setModel(nameRules);
-        } catch (Exception e) {
-            logger.error(e.getMessage(), e);
-            setModel(OperationResult.buildFailureResult("系统处理异常"));
-        }
-
+        setModel(getControllerMetadata().getValidationRules());
         return new DefaultHttpHeaders();
     }
 
@@ -8,6 +8,7 @@ import javax.servlet.http.HttpServletResponse;
 import lab.s2jh.core.annotation.MetaData;
 import lab.s2jh.core.exception.WebException;
 import lab.s2jh.core.security.AuthContextHolder;
+import lab.s2jh.core.web.rest.VersionedHttpHeaders;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.struts2.ServletActionContext;
@@ -27,6 +28,9 @@ public abstract class SimpleController implements ModelDriven<Object> {
     /** 请求URL可提供此参数指定转向特定JSP页面，如有相同处理方法返回相同数据，但是不同业务功能需要按照不同页面显示则可以指定此参数转向特定显示JSP页面*/
     protected static final String PARAM_NAME_FOR_FORWARD_TO = "_to_";
 
+    /** 基于数据版本输出的数据允许客户端不做校验直接使用本地缓存的有效期秒数，过期后基于ETag校验未变化则返回304 */
+    protected static final int VERSIONED_DATA_MAX_AGE_SECONDS = 600;
+
     /** ModelDriven对象 */
     protected Object model = null;
 
@@ -98,6 +102,16 @@ public abstract class SimpleController implements ModelDriven<Object> {
         return new DefaultHttpHeaders(code).disableCaching();
     }
 
+    /**
+     * 基于数据版本构造支持ETag条件请求的REST返回响应，一般用于枚举、数据字典等很少变更的基础数据JSON输出
+     * 返回对象isNotModified()为true表示客户端缓存数据仍然有效，无需再查询设置model数据
+     * @param version 数据版本标识，数据变更后必须随之变化
+     * @return
+     */
+    protected VersionedHttpHeaders buildVersionedHttpHeaders(String version) {
+        return new VersionedHttpHeaders(getRequest(), version, VERSIONED_DATA_MAX_AGE_SECONDS);
+    }
+
     /**
      * 帮助类方法，方便获取HttpServletRequest
      * 
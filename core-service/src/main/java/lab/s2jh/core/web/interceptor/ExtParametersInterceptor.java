@@ -1,12 +1,15 @@
 package lab.s2jh.core.web.interceptor;
 
-import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -14,17 +17,14 @@ import lab.s2jh.core.entity.BaseEntity;
 import lab.s2jh.core.entity.PersistableEntity;
 import lab.s2jh.core.entity.annotation.SkipParamBind;
 import lab.s2jh.core.exception.WebException;
+import lab.s2jh.core.util.reflection.AccessorRegistry;
 import lab.s2jh.core.web.PersistableController;
-import ognl.OgnlContext;
-import ognl.OgnlException;
-import ognl.OgnlRuntime;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
-import org.apache.commons.lang3.reflect.MethodUtils;
 import org.apache.struts2.ServletActionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Persistable;
 
 import com.google.common.collect.Sets;
@@ -45,35 +45,45 @@ public class ExtParametersInterceptor extends ParametersInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(ExtParametersInterceptor.class);
 
+    /** key=实体类型，value=setter方法标注了@SkipParamBind注解的属性名称集合 */
+    private static final ConcurrentMap<Class<?>, Set<String>> skipParamBindPropertiesMap =
+            new ConcurrentHashMap<Class<?>, Set<String>>();
+
     protected boolean isAccepted(String paramName) {
         boolean matches = super.isAccepted(paramName);
-        if (matches) {
-            try {
-                CompoundRoot root = ActionContext.getContext().getValueStack().getRoot();
-                for (Object obj : root) {
-                    if (obj != null && BaseEntity.class.isAssignableFrom(obj.getClass())) {
-                        Method method = OgnlRuntime.getSetMethod((OgnlContext) ActionContext.getContext()
-                                .getContextMap(), obj.getClass(), paramName);
-                        if (method != null) {
-                            SkipParamBind mvcAutoBindExclude = method.getAnnotation(SkipParamBind.class);
-                            if (mvcAutoBindExclude != null) {
-                                matches = false;
-                                logger.info(
-                                        "Skip auto bind parameter to model property according MvcAutoBind annotation: {} : {}",
-                                        obj.getClass(), paramName);
-                            }
-                        }
-                    }
+        //只有简单属性名称才可能直接对应值栈对象的setter方法，嵌套属性及集合元素参数无需检查
+        if (matches && StringUtils.containsNone(paramName, ".[(")) {
+            CompoundRoot root = ActionContext.getContext().getValueStack().getRoot();
+            for (Object obj : root) {
+                if (obj instanceof BaseEntity && getSkipParamBindProperties(obj.getClass()).contains(paramName)) {
+                    matches = false;
+                    logger.info("Skip auto bind parameter to model property according MvcAutoBind annotation: {} : {}",
+                            obj.getClass(), paramName);
                 }
-            } catch (IntrospectionException e) {
-                logger.error(e.getMessage(), e);
-            } catch (OgnlException e) {
-                logger.error(e.getMessage(), e);
             }
         }
         return matches;
     }
 
+    /**
+     * 每个实体类型只在首次访问时解析一次，避免每个请求参数对值栈每个对象都做setter方法反射查找
+     */
+    private Set<String> getSkipParamBindProperties(Class<?> clazz) {
+        Set<String> properties = skipParamBindPropertiesMap.get(clazz);
+        if (properties == null) {
+            properties = Sets.newHashSet();
+            for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(clazz)) {
+                Method method = pd.getWriteMethod();
+                if (method != null && method.isAnnotationPresent(SkipParamBind.class)) {
+                    properties.add(pd.getName());
+                }
+            }
+            properties = Collections.unmodifiableSet(properties);
+            skipParamBindPropertiesMap.put(clazz, properties);
+        }
+        return properties;
+    }
+
     protected Map<String, Object> retrieveParameters(ActionContext ac) {
         Map<String, Object> params = ac.getParameters();
         //id参数移除，不自动绑定，采用标准的request.getParameter获取参数并查询实体对象
@@ -94,6 +104,17 @@ public class ExtParametersInterceptor extends ParametersInterceptor {
                     try {
                         Persistable entity = (Persistable) model;
                         Set<String> needRemoveElementsPropertyNames = Sets.newHashSet();
+                        //一次遍历汇总出现关联属性数据提交的对象属性路径，如a[0].b.c汇总为a[0]及a[0].b
+                        //.display一般用于下拉或combox选取输入表单元素，不算做有效的对象数据提交内容
+                        Set<String> dataPropertyNames = Sets.newHashSet();
+                        for (String key : parameters.keySet()) {
+                            for (int idx = key.indexOf('.'); idx > 0; idx = key.indexOf('.', idx + 1)) {
+                                String subName = key.substring(idx + 1);
+                                if (!"id".equals(subName) && !"display".equals(subName)) {
+                                    dataPropertyNames.add(key.substring(0, idx));
+                                }
+                            }
+                        }
                         for (String key : parameters.keySet()) {
                             if (key.endsWith(".id")) {
                                 //对于关联对象，由于Struts默认设置为New一个对象实例以进行后续的参数数据绑定
@@ -106,27 +127,15 @@ public class ExtParametersInterceptor extends ParametersInterceptor {
                                     continue;
                                 }
 
-                                //计数器判断当前对象是多个对象数据提交还是简单的只是关联对象提交
-                                //.display一般用于下拉或combox选取输入表单元素，不算做有效的对象数据提交内容
-                                //如果出现除此之外的关联属性数据，说明是关联对象数据变更处理，则继续后续的对象级联保存处理
-                                int cnt = 0;
-                                for (String param : parameters.keySet()) {
-                                    if (param.startsWith(name + ".") && !param.equals(name + ".display")
-                                            && !param.equals(name + ".id")) {
-                                        cnt++;
-                                        break;
-                                    }
-                                }
-
-                                //如果计数器为0则说明当前不是对象数据编辑模式，而是简单的关联对象处理模式
-                                if (cnt == 0) {
+                                //如果出现除.display之外的关联属性数据，说明是关联对象数据变更处理，则继续后续的对象级联保存处理
+                                //否则说明当前不是对象数据编辑模式，而是简单的关联对象处理模式
+                                if (!dataPropertyNames.contains(name)) {
                                     logger.debug("Reset [{}] OneToOne [{}] to null as empty id value", model, name);
                                     if (name.indexOf("[") > -1 && name.indexOf("]") > -1) {
                                         //集合类型属性
                                         String fisrtPropName = StringUtils.substringBefore(name, "[");
                                         int idx = Integer.valueOf(StringUtils.substringBetween(name, "[", "]"));
-                                        List items = (List) MethodUtils.invokeMethod(model,
-                                                "get" + StringUtils.capitalize(fisrtPropName), null);
+                                        List items = (List) AccessorRegistry.getProperty(model, fisrtPropName);
                                         String lastPropName = StringUtils.substringAfter(name, "]");
                                         if (StringUtils.isBlank(lastPropName)) {
                                             items.remove(idx);
@@ -134,15 +143,15 @@ public class ExtParametersInterceptor extends ParametersInterceptor {
                                             Object item = items.get(idx);
                                             //TODO 目前只支持单层，需要添加多层嵌套处理逻辑
                                             String fieldName = StringUtils.substringAfter(lastPropName, ".");
-                                            if (FieldUtils.getDeclaredField(item.getClass(), fieldName, true) != null) {
-                                                FieldUtils.writeDeclaredField(item, fieldName, null, true);
+                                            if (AccessorRegistry.getField(item.getClass(), fieldName) != null) {
+                                                AccessorRegistry.writeField(item, fieldName, null);
                                             }
                                         }
                                     } else {
                                         //单一属性，直接把关联对象设置为null，否则不做处理传递到后端会认为是一个没有任何数据但是需要新创建的级联处理对象
                                         //TODO 目前只支持单层，需要添加多层嵌套处理逻辑
-                                        if (FieldUtils.getDeclaredField(model.getClass(), name, true) != null) {
-                                            FieldUtils.writeDeclaredField(model, name, null, true);
+                                        if (AccessorRegistry.getField(model.getClass(), name) != null) {
+                                            AccessorRegistry.writeField(model, name, null);
                                         }
                                     }
                                 }
@@ -164,8 +173,7 @@ public class ExtParametersInterceptor extends ParametersInterceptor {
                         //对于包含remove移除请求的集合属性进行清理处理
                         if (!entity.isNew()) {
                             for (String propName : needRemoveElementsPropertyNames) {
-                                Method method = OgnlRuntime.getGetMethod(null, model.getClass(), propName);
-                                Collection r2s = (Collection) method.invoke(model);
+                                Collection r2s = (Collection) AccessorRegistry.getProperty(model, propName);
                                 for (Iterator iter = r2s.iterator(); iter.hasNext();) {
                                     PersistableEntity persistable = (PersistableEntity) iter.next();
                                     if (persistable.isMarkedRemove()) {
@@ -0,0 +1,45 @@
+package lab.s2jh.core.web.json;
+
+import java.io.IOException;
+
+import lab.s2jh.core.web.view.CompactPage;
+import lab.s2jh.core.web.view.CompactPage.Column;
+
+import org.springframework.data.domain.Page;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * 紧凑数组格式表格分页数据输出，结构说明参考 {@link CompactPage}
+ */
+public class CompactPageJsonSerializer extends JsonSerializer<CompactPage> {
+
+    @Override
+    public void serialize(CompactPage value, JsonGenerator jgen, SerializerProvider provider) throws IOException,
+            JsonProcessingException {
+        Page<?> page = value.getPage();
+        jgen.writeStartObject();
+        jgen.writeNumberField("totalElements", page.getTotalElements());
+        jgen.writeNumberField("totalPages", page.getTotalPages());
+        jgen.writeNumberField("number", page.getNumber());
+        jgen.writeNumberField("size", page.getSize());
+        jgen.writeArrayFieldStart("columns");
+        for (Column column : value.getColumns()) {
+            jgen.writeString(column.getName());
+        }
+        jgen.writeEndArray();
+        jgen.writeArrayFieldStart("content");
+        for (Object row : page.getContent()) {
+            jgen.writeStartArray();
+            for (Column column : value.getColumns()) {
+                column.writeValue(row, jgen, provider);
+            }
+            jgen.writeEndArray();
+        }
+        jgen.writeEndArray();
+        jgen.writeEndObject();
+    }
+}
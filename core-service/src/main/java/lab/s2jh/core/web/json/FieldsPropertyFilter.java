@@ -0,0 +1,100 @@
+package lab.s2jh.core.web.json;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * 基于属性路径列表的JSON输出过滤器
+ * 属性列表以逗号分隔，关联对象属性以点号分隔，如：code,title,commodity.code,commodity.display；
+ * 只写关联属性名不带子属性（如commodity）表示输出该关联对象全部属性，主键id属性始终输出.
+ * 未在列表中的属性直接跳过，不会调用其getter方法，因此也不会触发未请求的延迟加载关联对象初始化.
+ * 属性路径以输出JSON结构中最近可匹配的层级为起点，因此同样适用于Page等包装结构中的实体对象集合
+ */
+public class FieldsPropertyFilter extends SimpleBeanPropertyFilter {
+
+    private static final String ALWAYS_INCLUDE_PROPERTY = "id";
+
+    private final Node root = new Node();
+
+    public FieldsPropertyFilter(String fields) {
+        for (String field : StringUtils.split(fields, ",")) {
+            field = field.trim();
+            if (StringUtils.isBlank(field)) {
+                continue;
+            }
+            Node node = root;
+            for (String name : StringUtils.split(field, ".")) {
+                Node child = node.children.get(name);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(name, child);
+                }
+                node = child;
+            }
+        }
+    }
+
+    @Override
+    protected boolean include(BeanPropertyWriter writer) {
+        //JSON Schema生成等无输出上下文的场景不做过滤
+        return true;
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator jgen, SerializerProvider provider,
+            BeanPropertyWriter writer) throws Exception {
+        String name = writer.getName();
+        if (ALWAYS_INCLUDE_PROPERTY.equals(name)) {
+            writer.serializeAsField(bean, jgen, provider);
+            return;
+        }
+        Node node = resolve(jgen.getOutputContext());
+        if (node.isAll() || node.children.containsKey(name)) {
+            writer.serializeAsField(bean, jgen, provider);
+        }
+    }
+
+    /**
+     * 基于当前输出上下文计算所在对象的属性路径，依次去除路径前缀直到可匹配定义的属性树节点
+     */
+    private Node resolve(JsonStreamContext context) {
+        List<String> path = Lists.newArrayList();
+        for (JsonStreamContext parent = context.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent.inObject() && parent.getCurrentName() != null) {
+                path.add(0, parent.getCurrentName());
+            }
+        }
+        for (int i = 0; i < path.size(); i++) {
+            Node node = root;
+            for (int j = i; j < path.size() && node != null && !node.isAll(); j++) {
+                node = node.children.get(path.get(j));
+            }
+            if (node != null) {
+                return node;
+            }
+        }
+        return root;
+    }
+
+    private class Node {
+
+        private final Map<String, Node> children = Maps.newHashMap();
+
+        /**
+         * 非根节点且未定义子属性表示输出全部属性
+         */
+        private boolean isAll() {
+            return this != root && children.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package lab.s2jh.core.web.json;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.google.common.collect.Maps;
+
+/**
+ * 基于Jackson内省结果判定类型在常规JSON序列化中输出的属性，
+ * 用于投影查询、紧凑格式输出等绕过Jackson序列化直接按属性路径取值的场景，保证输出属性范围与对象格式输出一致：
+ * 属性getter上的@JsonIgnore、类级别@JsonIgnoreProperties及@JsonAutoDetect可见性定义均生效.
+ * 内省结果按类型缓存，应用中统一使用 {@link HibernateAwareObjectMapper} 配置
+ */
+public class JsonPropertyIntrospector {
+
+    /** key=数据类型，value=JSON属性名称及其getter方法 */
+    private static final ConcurrentMap<Class<?>, Map<String, Method>> READ_METHODS = Maps.newConcurrentMap();
+
+    /**
+     * 类型在常规JSON序列化中输出的属性及其getter方法
+     * @param config 序列化配置
+     * @param clazz 数据类型
+     * @return key=JSON属性名称，value=getter方法
+     */
+    public static Map<String, Method> getReadMethods(SerializationConfig config, Class<?> clazz) {
+        Map<String, Method> methods = READ_METHODS.get(clazz);
+        if (methods == null) {
+            methods = Maps.newHashMap();
+            BeanDescription beanDesc = config.introspect(config.constructType(clazz));
+            JsonIgnoreProperties ignoreProperties = beanDesc.getClassInfo().getAnnotation(JsonIgnoreProperties.class);
+            List<String> ignoredNames = ignoreProperties == null ? Collections.<String> emptyList() : Arrays
+                    .asList(ignoreProperties.value());
+            for (BeanPropertyDefinition propertyDefinition : beanDesc.findProperties()) {
+                AnnotatedMethod getter = propertyDefinition.getGetter();
+                if (getter != null && !ignoredNames.contains(propertyDefinition.getName())) {
+                    methods.put(propertyDefinition.getName(), getter.getAnnotated());
+                }
+            }
+            methods = Collections.unmodifiableMap(methods);
+            READ_METHODS.putIfAbsent(clazz, methods);
+        }
+        return methods;
+    }
+
+    /**
+     * 基于应用统一的 {@link HibernateAwareObjectMapper} 配置判断getter方法对应属性是否在常规JSON序列化中输出
+     */
+    public static boolean isSerializable(Class<?> clazz, Method getter) {
+        return getReadMethods(HibernateAwareObjectMapper.getInstance().getSerializationConfig(), clazz).containsValue(
+                getter);
+    }
+}
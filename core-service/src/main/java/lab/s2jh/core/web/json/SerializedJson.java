@@ -0,0 +1,70 @@
+package lab.s2jh.core.web.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import lab.s2jh.core.exception.WebException;
+import lab.s2jh.core.web.rest.Jackson2LibHandler;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * 预先序列化的JSON数据：UTF-8编码的JSON字节数组及其gzip压缩字节数组，创建之后不可变.
+ * 作为Controller的model返回时由 {@link Jackson2LibHandler} 直接复制字节输出，不再做序列化处理
+ */
+public class SerializedJson {
+
+    private static final SimpleFilterProvider serializeAllFilterProvider = new SimpleFilterProvider().addFilter(
+            Jackson2LibHandler.DEFAULT_JSON_FILTER_NAME, SimpleBeanPropertyFilter.serializeAllExcept());
+
+    private final String version;
+
+    private final byte[] bytes;
+
+    private final byte[] gzipBytes;
+
+    private SerializedJson(String version, byte[] bytes, byte[] gzipBytes) {
+        this.version = version;
+        this.bytes = bytes;
+        this.gzipBytes = gzipBytes;
+    }
+
+    /**
+     * 序列化数据对象并压缩
+     * @param version 数据版本标识
+     * @param value 数据对象
+     */
+    public static SerializedJson build(String version, Object value) {
+        try {
+            byte[] bytes = HibernateAwareObjectMapper.getInstance().writer(serializeAllFilterProvider)
+                    .writeValueAsBytes(value);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            GZIPOutputStream gzip = new GZIPOutputStream(out);
+            gzip.write(bytes);
+            gzip.close();
+            return new SerializedJson(version, bytes, out.toByteArray());
+        } catch (IOException e) {
+            throw new WebException(e.getMessage(), e);
+        }
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * UTF-8编码的JSON字节数组，调用方不可修改
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * gzip压缩的JSON字节数组，调用方不可修改
+     */
+    public byte[] getGzipBytes() {
+        return gzipBytes;
+    }
+}
@@ -0,0 +1,76 @@
+package lab.s2jh.core.web.json;
+
+import java.util.concurrent.Callable;
+
+import lab.s2jh.core.exception.WebException;
+import lab.s2jh.core.service.SingleFlightExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * 基础数据预先序列化缓存，一般用于枚举、数据字典等很少变更且数据量有限的数据.
+ * 每个数据Key只保留当前版本的 {@link SerializedJson}，请求版本与缓存版本不一致时重新加载序列化并整体替换，
+ * 并发的相同版本重建请求合并为一次执行；读取无锁，版本未变化时请求处理只是直接复制字节输出.
+ * 数据Key可能来自请求参数（如数据字典分类），因此限定最大缓存项数量.
+ * 数据变更后版本变化即重建，旧版本数据随之替换；管理界面刷新缓存时调用 {@link #clear()} 整体清空
+ */
+@Component
+public class SerializedJsonCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializedJsonCache.class);
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final Cache<String, SerializedJson> entries = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+
+    @Autowired
+    private SingleFlightExecutor singleFlightExecutor;
+
+    /**
+     * 获取当前版本的预先序列化数据
+     *
+     * @param key 数据唯一标识
+     * @param version 当前数据版本标识，数据变更后必须随之变化；为null表示无法提供可靠版本（如集群部署），每次重新加载且不缓存
+     * @param loader 数据加载回调，返回待序列化的数据对象
+     */
+    public SerializedJson get(final String key, final String version, final Callable<?> loader) {
+        if (version == null) {
+            try {
+                return SerializedJson.build(null, loader.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new WebException(e.getMessage(), e);
+            }
+        }
+        SerializedJson serializedJson = entries.getIfPresent(key);
+        if (serializedJson != null && serializedJson.getVersion().equals(version)) {
+            return serializedJson;
+        }
+        return singleFlightExecutor.execute("SerializedJsonCache:" + key + ":" + version,
+                new Callable<SerializedJson>() {
+                    @Override
+                    public SerializedJson call() throws Exception {
+                        SerializedJson rebuilt = SerializedJson.build(version, loader.call());
+                        logger.debug("Rebuilt serialized json for key {} with version {}, {} bytes", new Object[] {
+                                key, version, rebuilt.getBytes().length });
+                        entries.put(key, rebuilt);
+                        return rebuilt;
+                    }
+                });
+    }
+
+    /**
+     * 清空所有预先序列化数据
+     */
+    public void clear() {
+        logger.info("Evicting all serialized json cache entries");
+        entries.invalidateAll();
+    }
+}
@@ -1,21 +1,29 @@
 package lab.s2jh.core.web.rest;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import lab.s2jh.core.exception.ExceptionLogger;
+import lab.s2jh.core.web.json.FieldsPropertyFilter;
 import lab.s2jh.core.web.json.HibernateAwareObjectMapper;
+import lab.s2jh.core.web.json.SerializedJson;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.struts2.ServletActionContext;
 import org.apache.struts2.StrutsConstants;
 import org.apache.struts2.rest.handler.ContentTypeHandler;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
@@ -29,6 +37,9 @@ public class Jackson2LibHandler implements ContentTypeHandler {
 
     public static final String DEFAULT_JSON_FILTER_NAME = "s2jhFilter";
 
+    /** 限定JSON输出属性列表的请求参数名称，格式参考 {@link FieldsPropertyFilter} */
+    public static final String PARAM_NAME_FOR_JSON_FIELDS = "_fields_";
+
     private static final SimpleFilterProvider serializeAllFilterProvider = new SimpleFilterProvider().addFilter(
             DEFAULT_JSON_FILTER_NAME, SimpleBeanPropertyFilter.serializeAllExcept());
 
@@ -39,26 +50,97 @@ public class Jackson2LibHandler implements ContentTypeHandler {
         or.readValue(in); //, new TypeReference<clazz>);
     }
 
+    /**
+     * 直接以流方式序列化输出到Response输出流，不再先序列化为完整字符串再由Struts转换为字节数组输出，
+     * 避免大数据量响应在内存中同时持有字符串及字节数组两份数据，同时首字节可随序列化过程尽早输出；
+     * 序列化缓冲区由Jackson基于线程复用(BufferRecycler)，不随每次请求重新分配.
+     * 传入的Writer保持为空，Struts检测到无内容输出则不再做二次写入
+     */
     public String fromObject(Object obj, String resultCode, Writer stream) throws IOException {
-        ObjectMapper mapper = HibernateAwareObjectMapper.getInstance();
-        if (obj instanceof Throwable) {
-            HttpServletRequest request = ServletActionContext.getRequest();
-            String msg = ExceptionLogger.logForHttpRequest((Throwable) obj, request);
-            Map<String, String> errors = Maps.newHashMap();
-            errors.put("type", "error");
-            errors.put("message", msg);
-            mapper.writeValue(stream, errors);
-        } else {
-            SimpleBeanPropertyFilter simpleBeanPropertyFilter = simpleBeanPropertyFilterContainer.get();
-            FilterProvider filters = null;
-            if (simpleBeanPropertyFilter != null) {
-                filters = new SimpleFilterProvider().addFilter(DEFAULT_JSON_FILTER_NAME, simpleBeanPropertyFilter);
+        try {
+            if (VersionedHttpHeaders.isNotModified(ServletActionContext.getRequest())) {
+                //304未变更响应不输出内容
+                return null;
+            }
+            if (obj instanceof SerializedJson) {
+                writeSerializedJson((SerializedJson) obj, stream);
+                return null;
+            }
+            ObjectMapper mapper = HibernateAwareObjectMapper.getInstance();
+            Object value = obj;
+            ObjectWriter writer;
+            if (obj instanceof Throwable) {
+                HttpServletRequest request = ServletActionContext.getRequest();
+                String msg = ExceptionLogger.logForHttpRequest((Throwable) obj, request);
+                Map<String, String> errors = Maps.newHashMap();
+                errors.put("type", "error");
+                errors.put("message", msg);
+                value = errors;
+                writer = mapper.writer();
+            } else {
+                SimpleBeanPropertyFilter simpleBeanPropertyFilter = simpleBeanPropertyFilterContainer.get();
+                if (simpleBeanPropertyFilter == null) {
+                    HttpServletRequest request = ServletActionContext.getRequest();
+                    String fields = request == null ? null : request.getParameter(PARAM_NAME_FOR_JSON_FIELDS);
+                    if (StringUtils.isNotBlank(fields)) {
+                        simpleBeanPropertyFilter = new FieldsPropertyFilter(fields);
+                    }
+                }
+                FilterProvider filters = null;
+                if (simpleBeanPropertyFilter != null) {
+                    filters = new SimpleFilterProvider().addFilter(DEFAULT_JSON_FILTER_NAME, simpleBeanPropertyFilter);
+                } else {
+                    filters = serializeAllFilterProvider;
+                }
+                writer = mapper.writer(filters);
+            }
+
+            HttpServletResponse response = ServletActionContext.getResponse();
+            if (response == null) {
+                writer.writeValue(stream, value);
+                return null;
+            }
+            response.setContentType(getContentType());
+            JsonGenerator generator;
+            if ("UTF-8".equalsIgnoreCase(defaultEncoding)) {
+                generator = mapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
             } else {
-                filters = serializeAllFilterProvider;
+                generator = mapper.getFactory().createGenerator(
+                        new OutputStreamWriter(response.getOutputStream(), defaultEncoding));
+            }
+            try {
+                writer.writeValue(generator, value);
+            } finally {
+                //writeValue(JsonGenerator, ...)不会关闭生成器，关闭时刷新缓冲数据，编码转换Writer的缓冲数据也随之输出
+                generator.close();
             }
-            mapper.writer(filters).writeValue(stream, obj);
+            return null;
+        } finally {
+            //304、预先序列化数据及异常响应分支均不使用过滤器，统一在此清除，避免残留到线程复用的下一个请求
+            simpleBeanPropertyFilterContainer.remove();
+        }
+    }
+
+    /**
+     * 预先序列化数据直接复制字节输出，客户端支持gzip则直接输出预先压缩的字节数组
+     */
+    private void writeSerializedJson(SerializedJson serializedJson, Writer stream) throws IOException {
+        HttpServletRequest request = ServletActionContext.getRequest();
+        HttpServletResponse response = ServletActionContext.getResponse();
+        if (response == null) {
+            stream.write(new String(serializedJson.getBytes(), "UTF-8"));
+            return;
+        }
+        response.setContentType(DEFAULT_CONTENT_TYPE + ";charset=UTF-8");
+        response.setHeader("Vary", "Accept-Encoding");
+        byte[] bytes = serializedJson.getBytes();
+        String acceptEncoding = request == null ? null : request.getHeader("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            response.setHeader("Content-Encoding", "gzip");
+            bytes = serializedJson.getGzipBytes();
         }
-        return null;
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
     }
 
     public String getContentType() {
@@ -74,6 +156,9 @@ public class Jackson2LibHandler implements ContentTypeHandler {
         this.defaultEncoding = val;
     }
 
+    /**
+     * 设置当前线程下次JSON输出所用的属性过滤器，优先于请求参数定义的属性列表，输出后自动清除
+     */
     public static void setJsonPropertyFilter(SimpleBeanPropertyFilter simpleBeanPropertyFilter) {
         simpleBeanPropertyFilterContainer.set(simpleBeanPropertyFilter);
     }
@@ -0,0 +1,86 @@
+package lab.s2jh.core.web.rest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.struts2.rest.DefaultHttpHeaders;
+
+/**
+ * 基于数据版本的条件请求REST响应：以数据版本作为ETag输出并允许客户端在有效期内直接使用本地缓存，
+ * 过期后客户端携带If-None-Match再次请求，版本未变化则直接返回304且不输出响应内容.
+ * 调用方可先通过 {@link #isNotModified()} 判断，未变化时无需再查询组装数据.
+ * 数据版本为null表示无法提供可靠版本（如集群部署），此时按普通响应处理，不输出ETag及缓存有效期
+ */
+public class VersionedHttpHeaders extends DefaultHttpHeaders {
+
+    /** 标识当前请求已按304未变更处理的request属性，ContentTypeHandler据此跳过序列化输出 */
+    private static final String NOT_MODIFIED_ATTRIBUTE = VersionedHttpHeaders.class.getName() + ".NOT_MODIFIED";
+
+    private final String etag;
+
+    private final int maxAgeSeconds;
+
+    private final boolean notModified;
+
+    /**
+     * @param request 当前请求
+     * @param version 数据版本标识，为null则不做条件请求处理
+     * @param maxAgeSeconds 客户端无需校验直接使用本地缓存的有效期秒数
+     */
+    public VersionedHttpHeaders(HttpServletRequest request, String version, int maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+        if (version == null) {
+            this.etag = null;
+            this.notModified = false;
+            return;
+        }
+        this.etag = "\"" + version + "\"";
+        this.notModified = matches(request.getHeader("If-None-Match"), etag);
+        withETag(etag);
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    @Override
+    public String apply(HttpServletRequest request, HttpServletResponse response, Object target) {
+        if (etag == null) {
+            return super.apply(request, response, target);
+        }
+        //数据可能按当前登录用户过滤，因此只允许浏览器私有缓存
+        response.setHeader("Cache-Control", "private, max-age=" + maxAgeSeconds);
+        if (notModified) {
+            response.setHeader("ETag", etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            request.setAttribute(NOT_MODIFIED_ATTRIBUTE, Boolean.TRUE);
+            return null;
+        }
+        return super.apply(request, response, target);
+    }
+
+    /**
+     * 判断当前请求是否已按304未变更处理，无需输出响应内容
+     */
+    public static boolean isNotModified(HttpServletRequest request) {
+        return request != null && request.getAttribute(NOT_MODIFIED_ATTRIBUTE) != null;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String tag : StringUtils.split(ifNoneMatch, ",")) {
+            tag = tag.trim();
+            //部分代理服务器压缩输出时会把ETag转换为弱校验格式
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
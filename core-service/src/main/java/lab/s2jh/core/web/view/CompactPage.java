@@ -0,0 +1,143 @@
+package lab.s2jh.core.web.view;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import lab.s2jh.core.entity.PersistableEntity;
+import lab.s2jh.core.util.reflection.AccessorRegistry;
+import lab.s2jh.core.web.json.CompactPageJsonSerializer;
+import lab.s2jh.core.web.json.JsonPropertyIntrospector;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Page;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * 紧凑数组格式的表格分页数据
+ * 列名集合只输出一次，每行数据以与列名顺序对应的数组输出，避免常规对象格式每行重复输出全部属性名，
+ * 输出结构：{totalElements:n,totalPages:n,number:n,size:n,columns:["id","code","commodity.display"],content:[[...],[...]]}
+ * 由前端表格组件按列名还原为嵌套对象结构，关联属性以点号分隔的路径获取；
+ * 属性可见性基于Jackson对类型的内省结果判定，@JsonIgnore、@JsonIgnoreProperties及类级别@JsonAutoDetect可见性定义同样生效，
+ * 属性getter上的@JsonSerialize(using=...)注解也同样生效，不可见或无效属性输出null
+ */
+@JsonSerialize(using = CompactPageJsonSerializer.class)
+public class CompactPage {
+
+    private static final String ID_PROPERTY = "id";
+
+    private static final String EXTRA_ATTRIBUTES_PROPERTY = "extraAttributes";
+
+    private final Page<?> page;
+
+    private final List<Column> columns = Lists.newArrayList();
+
+    public CompactPage(Page<?> page, String... properties) {
+        this.page = page;
+        List<String> names = Lists.newArrayList(ID_PROPERTY);
+        for (String property : properties) {
+            property = property.trim();
+            if (StringUtils.isNotBlank(property) && !names.contains(property)) {
+                names.add(property);
+            }
+        }
+        //树形表格等场景依赖的扩展属性，有数据时追加输出
+        if (!names.contains(EXTRA_ATTRIBUTES_PROPERTY)) {
+            for (Object row : page.getContent()) {
+                if (row instanceof PersistableEntity && ((PersistableEntity<?>) row).getExtraAttributes() != null) {
+                    names.add(EXTRA_ATTRIBUTES_PROPERTY);
+                    break;
+                }
+            }
+        }
+        for (String name : names) {
+            columns.add(new Column(name));
+        }
+    }
+
+    public Page<?> getPage() {
+        return page;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public static class Column {
+
+        private final String name;
+
+        private final String[] path;
+
+        /** key=属性getter方法，value=getter上@JsonSerialize(using=...)定义的序列化器，未定义则为Column自身标识 */
+        private final ConcurrentMap<Method, Object> serializers = Maps.newConcurrentMap();
+
+        private Column(String name) {
+            this.name = name;
+            this.path = StringUtils.split(name, ".");
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 按属性路径逐级获取属性值并输出，中间值为空、属性不存在或常规JSON序列化不可见的属性输出null
+         */
+        public void writeValue(Object row, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+            Object value = row;
+            Method method = null;
+            for (String property : path) {
+                if (value == null) {
+                    break;
+                }
+                if (value instanceof Map) {
+                    value = ((Map<?, ?>) value).get(property);
+                    method = null;
+                    continue;
+                }
+                method = JsonPropertyIntrospector.getReadMethods(provider.getConfig(), Hibernate.getClass(value)).get(
+                        property);
+                if (method == null) {
+                    value = null;
+                    break;
+                }
+                value = AccessorRegistry.invoke(method, value);
+            }
+            if (value == null) {
+                jgen.writeNull();
+                return;
+            }
+            JsonSerializer<Object> serializer = method == null ? null : getSerializer(method);
+            if (serializer != null) {
+                serializer.serialize(value, jgen, provider);
+            } else {
+                provider.defaultSerializeValue(value, jgen);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private JsonSerializer<Object> getSerializer(Method method) {
+            Object serializer = serializers.get(method);
+            if (serializer == null) {
+                serializer = this;
+                JsonSerialize jsonSerialize = method.getAnnotation(JsonSerialize.class);
+                if (jsonSerialize != null && jsonSerialize.using() != JsonSerializer.None.class) {
+                    serializer = BeanUtils.instantiate(jsonSerialize.using());
+                }
+                serializers.putIfAbsent(method, serializer);
+            }
+            return serializer == this ? null : (JsonSerializer<Object>) serializer;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package lab.s2jh.core.entity;
+
+import lab.s2jh.core.web.rest.Jackson2LibHandler;
+
+import org.hibernate.bytecode.internal.javassist.FieldHandled;
+import org.hibernate.bytecode.internal.javassist.FieldHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+public class PersistableEntityJsonTest {
+
+    @Test
+    public void instrumentedFieldHandlerIgnored() throws Exception {
+        InstrumentedEntity entity = new InstrumentedEntity();
+        entity.setId("E1");
+        entity.setFieldHandler(new NoopFieldHandler());
+        String json = new ObjectMapper().writer(
+                new SimpleFilterProvider().addFilter(Jackson2LibHandler.DEFAULT_JSON_FILTER_NAME,
+                        SimpleBeanPropertyFilter.serializeAllExcept(new String[0]))).writeValueAsString(entity);
+        Assert.assertTrue(json, json.contains("\"id\":\"E1\""));
+        Assert.assertFalse(json, json.contains("fieldHandler"));
+    }
+
+    /**
+     * 模拟编译期Hibernate字节码增强后的实体类
+     */
+    public static class InstrumentedEntity extends PersistableEntity<String> implements FieldHandled {
+
+        private String id;
+
+        private FieldHandler fieldHandler;
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getDisplay() {
+            return id;
+        }
+
+        @Override
+        public FieldHandler getFieldHandler() {
+            return fieldHandler;
+        }
+
+        @Override
+        public void setFieldHandler(FieldHandler fieldHandler) {
+            this.fieldHandler = fieldHandler;
+        }
+    }
+
+    private static class NoopFieldHandler implements FieldHandler {
+
+        @Override
+        public int writeInt(Object obj, String name, int oldValue, int newValue) {
+            return newValue;
+        }
+
+        @Override
+        public char writeChar(Object obj, String name, char oldValue, char newValue) {
+            return newValue;
+        }
+
+        @Override
+        public byte writeByte(Object obj, String name, byte oldValue, byte newValue) {
+            return newValue;
+        }
+
+        @Override
+        public boolean writeBoolean(Object obj, String name, boolean oldValue, boolean newValue) {
+            return newValue;
+        }
+
+        @Override
+        public short writeShort(Object obj, String name, short oldValue, short newValue) {
+            return newValue;
+        }
+
+        @Override
+        public float writeFloat(Object obj, String name, float oldValue, float newValue) {
+            return newValue;
+        }
+
+        @Override
+        public double writeDouble(Object obj, String name, double oldValue, double newValue) {
+            return newValue;
+        }
+
+        @Override
+        public long writeLong(Object obj, String name, long oldValue, long newValue) {
+            return newValue;
+        }
+
+        @Override
+        public Object writeObject(Object obj, String name, Object oldValue, Object newValue) {
+            return newValue;
+        }
+
+        @Override
+        public int readInt(Object obj, String name, int oldValue) {
+            return oldValue;
+        }
+
+        @Override
+        public char readChar(Object obj, String name, char oldValue) {
+            return oldValue;
+        }
+
+        @Override
+        public byte readByte(Object obj, String name, byte oldValue) {
+            return oldValue;
+        }
+
+        @Override
+        public boolean readBoolean(Object obj, String name, boolean oldValue) {
+            return oldValue;
+        }
+
+        @Override
+        public short readShort(Object obj, String name, short oldValue) {
+            return oldValue;
+        }
+
+        @Override
+        public float readFloat(Object obj, String name, float oldValue) {
+            return oldValue;
+        }
+
+        @Override
+        public double readDouble(Object obj, String name, double oldValue) {
+            return oldValue;
+        }
+
+        @Override
+        public long readLong(Object obj, String name, long oldValue) {
+            return oldValue;
+        }
+
+        @Override
+        public Object readObject(Object obj, String name, Object oldValue) {
+            return oldValue;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package lab.s2jh.core.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lab.s2jh.core.web.rest.VersionedHttpHeaders;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class QueryResultCacheTest {
+
+    private QueryResultCache queryResultCache;
+
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        queryResultCache = new QueryResultCache();
+        loads = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void invalidateWithoutTransaction() {
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+        queryResultCache.invalidate(Sample.class, 1L);
+        Assert.assertEquals(Integer.valueOf(2), get("key"));
+    }
+
+    @Test
+    public void invalidateAfterCommit() {
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+        String version = queryResultCache.getDataVersion(Sample.class);
+
+        TransactionSynchronizationManager.initSynchronization();
+        queryResultCache.invalidate(Sample.class, 1L);
+        //提交之前其他事务依然读取缓存，当前事务存在未提交变更则绕过缓存
+        Assert.assertEquals(version, queryResultCache.getDataVersion(Sample.class));
+        Assert.assertEquals(Integer.valueOf(2), get("key"));
+        Assert.assertEquals(Integer.valueOf(3), get("key"));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assert.assertFalse(version.equals(queryResultCache.getDataVersion(Sample.class)));
+        Assert.assertEquals(Integer.valueOf(4), get("key"));
+        Assert.assertEquals(Integer.valueOf(4), get("key"));
+    }
+
+    @Test
+    public void rollbackKeepsEntries() {
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+        String version = queryResultCache.getDataVersion(Sample.class);
+
+        TransactionSynchronizationManager.initSynchronization();
+        queryResultCache.invalidate(Sample.class, 1L);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assert.assertEquals(version, queryResultCache.getDataVersion(Sample.class));
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+    }
+
+    @Test
+    public void snapshotHeldByTransactionNotCached() {
+        TransactionSynchronizationManager.initSynchronization();
+        //非@Transactional新开启的事务（如加入外层事务）可能已建立较早的一致性读快照
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+        Assert.assertEquals(Integer.valueOf(2), get("key"));
+        Assert.assertEquals(0, queryResultCache.getSize());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        Assert.assertEquals(Integer.valueOf(3), get("key"));
+        Assert.assertEquals(Integer.valueOf(3), get("key"));
+        Assert.assertEquals(1, queryResultCache.getSize());
+    }
+
+    @Test
+    public void dataVersionChangesOnlyForInvalidatedType() {
+        String version = queryResultCache.getDataVersion(Sample.class);
+        String otherVersion = queryResultCache.getDataVersion(Other.class);
+        Assert.assertEquals(version, queryResultCache.getDataVersion(Sample.class));
+
+        queryResultCache.invalidate(Sample.class, 1L);
+        Assert.assertFalse(version.equals(queryResultCache.getDataVersion(Sample.class)));
+        Assert.assertEquals(otherVersion, queryResultCache.getDataVersion(Other.class));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "\"" + version + "\"");
+        Assert.assertFalse(new VersionedHttpHeaders(request, queryResultCache.getDataVersion(Sample.class), 600)
+                .isNotModified());
+    }
+
+    @Test
+    public void clusterModeDisablesDataVersion() {
+        queryResultCache.setClusterMode(true);
+        Assert.assertNull(queryResultCache.getDataVersion(Sample.class));
+        Assert.assertNotNull(queryResultCache.getDataVersion());
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+        Assert.assertEquals(Integer.valueOf(2), get("key"));
+    }
+
+    @Test
+    public void evictedTagStillInvalidates() {
+        queryResultCache.setMaxEntries(1);
+        Collection<String> tags = Arrays.asList(queryResultCache.buildTypeTag(Sample.class),
+                queryResultCache.buildKeyRangeTag(Sample.class, 1L));
+        Assert.assertEquals(Integer.valueOf(1), get("key", tags));
+        //大量其他标签失效，使标签版本记录超出容量被回收
+        for (long i = 0; i < 1000; i++) {
+            queryResultCache.invalidate(Other.class, i * 1000);
+        }
+        get("key", tags);
+        int loaded = loads.get();
+        queryResultCache.invalidate(Sample.class, 1L);
+        Assert.assertEquals(Integer.valueOf(loaded + 1), get("key", tags));
+    }
+
+    @Test
+    public void clearEvictsEntriesAndChangesETag() {
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+        Assert.assertEquals(Integer.valueOf(1), get("key"));
+
+        String version = queryResultCache.getDataVersion(Sample.class);
+        String staticVersion = queryResultCache.getDataVersion();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "\"" + version + "\"");
+        Assert.assertTrue(new VersionedHttpHeaders(request, queryResultCache.getDataVersion(Sample.class), 600)
+                .isNotModified());
+
+        queryResultCache.clear();
+        Assert.assertFalse(version.equals(queryResultCache.getDataVersion(Sample.class)));
+        Assert.assertFalse(new VersionedHttpHeaders(request, queryResultCache.getDataVersion(Sample.class), 600)
+                .isNotModified());
+        //不依赖实体数据的版本标识同样变化
+        Assert.assertFalse(staticVersion.equals(queryResultCache.getDataVersion()));
+        Assert.assertEquals(Integer.valueOf(2), get("key"));
+    }
+
+    private Integer get(String key) {
+        return get(key, typeTags(Sample.class));
+    }
+
+    private Integer get(String key, Collection<String> tags) {
+        return queryResultCache.get(Sample.class, key, tags, new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return loads.incrementAndGet();
+            }
+        });
+    }
+
+    private void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private Collection<String> typeTags(Class<?> entityClass) {
+        return Collections.singleton(queryResultCache.buildTypeTag(entityClass));
+    }
+
+    private static class Sample {
+    }
+
+    private static class Other {
+    }
+}
@@ -0,0 +1,161 @@
+package lab.s2jh.core.service;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lab.s2jh.core.exception.ServiceException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SingleFlightExecutorTest {
+
+    private SingleFlightExecutor singleFlightExecutor;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        singleFlightExecutor = new SingleFlightExecutor();
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void coalesceConcurrentCalls() throws Exception {
+        final AtomicInteger invocations = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Object result = new Object();
+        Future<Object> first = submit("key", new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                invocations.incrementAndGet();
+                started.countDown();
+                release.await();
+                return result;
+            }
+        });
+        started.await();
+        Future<Object> second = submit("key", new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                invocations.incrementAndGet();
+                return new Object();
+            }
+        });
+        awaitCoalesced(1);
+        release.countDown();
+
+        Assert.assertSame(result, first.get());
+        Assert.assertSame(result, second.get());
+        Assert.assertEquals(1, invocations.get());
+        Assert.assertEquals(1, singleFlightExecutor.getExecutions());
+        Assert.assertEquals(1, singleFlightExecutor.getCoalesced());
+    }
+
+    @Test
+    public void executeAgainAfterCompleted() {
+        final AtomicInteger invocations = new AtomicInteger();
+        Callable<Integer> callable = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return invocations.incrementAndGet();
+            }
+        };
+        Assert.assertEquals(Integer.valueOf(1), singleFlightExecutor.execute("key", callable));
+        Assert.assertEquals(Integer.valueOf(2), singleFlightExecutor.execute("key", callable));
+        Assert.assertEquals(Integer.valueOf(3), singleFlightExecutor.execute("other", callable));
+        Assert.assertEquals(3, singleFlightExecutor.getExecutions());
+        Assert.assertEquals(0, singleFlightExecutor.getCoalesced());
+    }
+
+    @Test(timeout = 10000)
+    public void propagateRuntimeExceptionToCoalescedCalls() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final IllegalStateException error = new IllegalStateException("failed");
+        Future<Object> first = submit("key", new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                started.countDown();
+                release.await();
+                throw error;
+            }
+        });
+        started.await();
+        Future<Object> second = submit("key", new Callable<Object>() {
+            @Override
+            public Object call() {
+                return new Object();
+            }
+        });
+        awaitCoalesced(1);
+        release.countDown();
+
+        Assert.assertSame(error, getFailure(first));
+        Assert.assertSame(error, getFailure(second));
+
+        //失败结果不保留，后续调用重新执行
+        Assert.assertEquals("ok", singleFlightExecutor.execute("key", new Callable<String>() {
+            @Override
+            public String call() {
+                return "ok";
+            }
+        }));
+    }
+
+    @Test
+    public void wrapCheckedException() {
+        final IOException error = new IOException("io failed");
+        try {
+            singleFlightExecutor.execute("key", new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    throw error;
+                }
+            });
+            Assert.fail("ServiceException expected");
+        } catch (ServiceException e) {
+            Assert.assertSame(error, e.getCause());
+        }
+    }
+
+    private <V> Future<V> submit(final String key, final Callable<V> callable) {
+        return executorService.submit(new Callable<V>() {
+            @Override
+            public V call() {
+                return singleFlightExecutor.execute(key, callable);
+            }
+        });
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        while (singleFlightExecutor.getCoalesced() < expected) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private Throwable getFailure(Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+            Assert.fail("Exception expected");
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package lab.s2jh.core.util;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+
+public class UidUtilsTest {
+
+    @Test
+    public void timeOrdered() {
+        List<String> uids = Lists.newArrayList();
+        for (int i = 0; i < 10000; i++) {
+            uids.add(UidUtils.UID());
+        }
+        Assert.assertTrue(Ordering.natural().isStrictlyOrdered(uids));
+
+        UUID uuid = UUID.fromString(uids.get(0));
+        Assert.assertEquals(7, uuid.version());
+        Assert.assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    public void sameMillisecondIncreasesSequence() {
+        long now = nextTimestamp();
+        UUID first = UidUtils.timeOrderedUUID(now);
+        UUID second = UidUtils.timeOrderedUUID(now);
+        Assert.assertEquals(now, timestampOf(first));
+        Assert.assertEquals(now, timestampOf(second));
+        Assert.assertEquals(sequenceOf(first) + 1, sequenceOf(second));
+    }
+
+    @Test
+    public void clockRollbackKeepsOrdering() {
+        long now = nextTimestamp();
+        UUID before = UidUtils.timeOrderedUUID(now);
+        //时钟回拨后沿用上次时间戳继续递增序号
+        UUID after = UidUtils.timeOrderedUUID(now - 5000);
+        Assert.assertEquals(now, timestampOf(after));
+        Assert.assertEquals(sequenceOf(before) + 1, sequenceOf(after));
+        Assert.assertTrue(before.toString().compareTo(after.toString()) < 0);
+
+        //时钟恢复超过上次时间戳后重新从0开始计数
+        UUID recovered = UidUtils.timeOrderedUUID(now + 1);
+        Assert.assertEquals(now + 1, timestampOf(recovered));
+        Assert.assertEquals(0, sequenceOf(recovered));
+    }
+
+    @Test
+    public void sequenceOverflowBorrowsNextMillisecond() {
+        long now = nextTimestamp();
+        UUID previous = UidUtils.timeOrderedUUID(now);
+        for (int i = 0; i < 0xFFF; i++) {
+            UUID uuid = UidUtils.timeOrderedUUID(now);
+            Assert.assertTrue(previous.toString().compareTo(uuid.toString()) < 0);
+            previous = uuid;
+        }
+        Assert.assertEquals(now, timestampOf(previous));
+        Assert.assertEquals(0xFFF, sequenceOf(previous));
+
+        UUID borrowed = UidUtils.timeOrderedUUID(now);
+        Assert.assertEquals(now + 1, timestampOf(borrowed));
+        Assert.assertEquals(0, sequenceOf(borrowed));
+        Assert.assertTrue(previous.toString().compareTo(borrowed.toString()) < 0);
+    }
+
+    @Test
+    public void bytesRoundTrip() {
+        UUID uuid = UidUtils.timeOrderedUUID();
+        byte[] bytes = UidUtils.toBytes(uuid);
+        Assert.assertEquals(16, bytes.length);
+        Assert.assertEquals(uuid, UidUtils.fromBytes(bytes));
+    }
+
+    /**
+     * 生成时间戳为全局状态，取已生成的最大时间戳之后的值，避免受其他测试方法执行顺序影响
+     */
+    private long nextTimestamp() {
+        return timestampOf(UidUtils.timeOrderedUUID()) + 1000;
+    }
+
+    private long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private int sequenceOf(UUID uuid) {
+        return (int) (uuid.getMostSignificantBits() & 0xFFF);
+    }
+}
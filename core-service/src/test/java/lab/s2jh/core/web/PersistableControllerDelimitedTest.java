@@ -0,0 +1,64 @@
+package lab.s2jh.core.web;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import lab.s2jh.core.util.DateUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PersistableControllerDelimitedTest {
+
+    private enum Status {
+        ACTIVE
+    }
+
+    @Test
+    public void csvPlainValues() throws Exception {
+        Date date = new Date();
+        Assert.assertEquals("a,12,1.50,ACTIVE," + DateUtils.formatTime(date) + "\n",
+                csv("a", 12, new BigDecimal("1.50"), Status.ACTIVE, date));
+        Assert.assertEquals("1E+3 as plain text", "1000\n", csv(new BigDecimal("1E+3")));
+    }
+
+    @Test
+    public void csvQuotesSpecialCharacters() throws Exception {
+        Assert.assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"line1\nline2\",\"cr\r\"\n",
+                csv("a,b", "say \"hi\"", "line1\nline2", "cr\r"));
+    }
+
+    @Test
+    public void csvNullAsEmpty() throws Exception {
+        Assert.assertEquals(",x,\n", csv(null, "x", null));
+        Assert.assertEquals("\n", csv(new Object[0]));
+    }
+
+    @Test
+    public void tsvEscapesSpecialCharacters() throws Exception {
+        Assert.assertEquals("a\\tb\tline1\\nline2\tcr\\r\tback\\\\slash\ta,\"b\"\n",
+                tsv("a\tb", "line1\nline2", "cr\r", "back\\slash", "a,\"b\""));
+    }
+
+    @Test
+    public void tsvNullAsBackslashN() throws Exception {
+        Assert.assertEquals("\\N\tx\t\\N\n", tsv(null, "x", null));
+        //值为字符串\N时转义反斜杠，与NULL区分
+        Assert.assertEquals("\\\\N\n", tsv("\\N"));
+    }
+
+    private String csv(Object... values) throws Exception {
+        return write(values, false);
+    }
+
+    private String tsv(Object... values) throws Exception {
+        return write(values, true);
+    }
+
+    private String write(Object[] values, boolean tab) throws Exception {
+        StringWriter writer = new StringWriter();
+        PersistableController.writeDelimitedRow(writer, values, tab);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package lab.s2jh.core.web.json;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.google.common.collect.Lists;
+
+public class FieldsPropertyFilterTest {
+
+    private static final String FILTER_NAME = "s2jhFilter";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void topLevelProperties() throws Exception {
+        Assert.assertEquals("{\"id\":\"C1\",\"code\":\"c-1\"}", write(buildCommodity(), "code"));
+        Assert.assertEquals("{\"id\":\"C1\",\"code\":\"c-1\",\"title\":\"Commodity\"}",
+                write(buildCommodity(), " code , title ,"));
+    }
+
+    @Test
+    public void nestedPropertyPath() throws Exception {
+        Assert.assertEquals("{\"id\":\"C1\",\"code\":\"c-1\",\"category\":{\"id\":\"G1\",\"name\":\"Category\"}}",
+                write(buildCommodity(), "code,category.name"));
+    }
+
+    @Test
+    public void associationWithoutChildrenIncludesAll() throws Exception {
+        Assert.assertEquals(
+                "{\"id\":\"C1\",\"category\":{\"id\":\"G1\",\"code\":\"g-1\",\"name\":\"Category\",\"parent\":{\"id\":\"G0\",\"code\":\"g-0\",\"name\":\"Root\",\"parent\":null}}}",
+                write(buildCommodity(), "category"));
+    }
+
+    @Test
+    public void deepPropertyPath() throws Exception {
+        Assert.assertEquals("{\"id\":\"C1\",\"category\":{\"id\":\"G1\",\"parent\":{\"id\":\"G0\",\"code\":\"g-0\"}}}",
+                write(buildCommodity(), "category.parent.code"));
+    }
+
+    @Test
+    public void wrapperPathPrefixIsSkipped() throws Exception {
+        Page page = new Page();
+        page.content = Lists.newArrayList(buildCommodity());
+        page.total = 1;
+        Assert.assertEquals(
+                "{\"content\":[{\"id\":\"C1\",\"code\":\"c-1\",\"category\":{\"id\":\"G1\",\"name\":\"Category\"}}],\"total\":1}",
+                write(page, "code,category.name"));
+    }
+
+    private String write(Object value, String fields) throws Exception {
+        return objectMapper.writer(new SimpleFilterProvider().addFilter(FILTER_NAME, new FieldsPropertyFilter(fields)))
+                .writeValueAsString(value);
+    }
+
+    private Commodity buildCommodity() {
+        Category root = new Category();
+        root.id = "G0";
+        root.code = "g-0";
+        root.name = "Root";
+        Category category = new Category();
+        category.id = "G1";
+        category.code = "g-1";
+        category.name = "Category";
+        category.parent = root;
+        Commodity commodity = new Commodity();
+        commodity.id = "C1";
+        commodity.code = "c-1";
+        commodity.title = "Commodity";
+        commodity.category = category;
+        return commodity;
+    }
+
+    @JsonFilter(FILTER_NAME)
+    @JsonPropertyOrder({ "id", "code", "title", "category" })
+    public static class Commodity {
+        public String id;
+        public String code;
+        public String title;
+        public Category category;
+    }
+
+    @JsonFilter(FILTER_NAME)
+    @JsonPropertyOrder({ "id", "code", "name", "parent" })
+    public static class Category {
+        public String id;
+        public String code;
+        public String name;
+        public Category parent;
+    }
+
+    /**
+     * 模拟分页等未标注过滤器的包装结构
+     */
+    @JsonPropertyOrder({ "content", "total" })
+    public static class Page {
+        public List<Commodity> content;
+        public long total;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Date;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.JoinColumn;
@@ -17,14 +18,19 @@ import javax.persistence.Table;
 import lab.s2jh.biz.core.constant.VoucherTypeEnum;
 import lab.s2jh.biz.core.entity.BaseBizEntity;
 import lab.s2jh.core.annotation.MetaData;
+import lab.s2jh.core.audit.MonthlyPartitionListener;
+import lab.s2jh.core.entity.annotation.MonthlyPartition;
+import lab.s2jh.core.entity.annotation.SkipParamBind;
 import lab.s2jh.core.web.json.DateJsonSerializer;
 
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ForeignKey;
+import org.hibernate.annotations.Index;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.RelationTargetAuditMode;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
@@ -32,6 +38,8 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 @Entity
 @Table(name = "myt_finance_account_in_out")
 @Cache(usage = CacheConcurrencyStrategy.NONE)
+@MonthlyPartition(dateProperty = "postingDate")
+@EntityListeners(MonthlyPartitionListener.class)
 public class AccountInOut extends BaseBizEntity {
 
     @MetaData("凭证号")
@@ -68,7 +76,11 @@ public class AccountInOut extends BaseBizEntity {
     @MetaData(value = "标识记账已红冲")
     private Boolean redword;
 
+    @MetaData(value = "分区月份", comments = "基于记账日期自动计算的yyyyMM格式年月")
+    private Integer partitionMonth;
+
     @Column(length = 128, nullable = false)
+    @Index(name = "idx_myt_finance_aio_voucher")
     @JsonProperty
     public String getVoucher() {
         return voucher;
@@ -208,4 +220,16 @@ public class AccountInOut extends BaseBizEntity {
     public void setRedword(Boolean redword) {
         this.redword = redword;
     }
+
+    @Column(name = "partition_month")
+    @Index(name = "idx_myt_finance_aio_pm")
+    @JsonIgnore
+    public Integer getPartitionMonth() {
+        return partitionMonth;
+    }
+
+    @SkipParamBind
+    public void setPartitionMonth(Integer partitionMonth) {
+        this.partitionMonth = partitionMonth;
+    }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import javax.validation.constraints.Size;
 import lab.s2jh.biz.stock.entity.StorageLocation;
 import lab.s2jh.core.annotation.MetaData;
 import lab.s2jh.core.entity.BaseUuidEntity;
+import lab.s2jh.core.entity.annotation.FullTextIndexed;
 
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -81,6 +82,7 @@ public class Commodity extends BaseUuidEntity {
 
     @JsonProperty
     @Column(length = 256, nullable = false)
+    @FullTextIndexed
     public String getTitle() {
         return title;
     }
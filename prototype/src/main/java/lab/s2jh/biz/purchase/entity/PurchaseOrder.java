@@ -5,11 +5,13 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import javax.persistence.Basic;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
@@ -425,6 +427,7 @@ public class PurchaseOrder extends BaseBizEntity implements BpmTrackable {
     }
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @JsonIgnore
     public String getPaymentReference() {
         return paymentReference;
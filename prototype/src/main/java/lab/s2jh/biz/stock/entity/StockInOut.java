@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.JoinColumn;
@@ -13,19 +14,26 @@ import javax.persistence.Transient;
 
 import lab.s2jh.biz.core.constant.VoucherTypeEnum;
 import lab.s2jh.core.annotation.MetaData;
-import lab.s2jh.core.entity.BaseNativeEntity;
+import lab.s2jh.core.audit.MonthlyPartitionListener;
+import lab.s2jh.core.entity.BasePooledEntity;
+import lab.s2jh.core.entity.annotation.MonthlyPartition;
+import lab.s2jh.core.entity.annotation.SkipParamBind;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Index;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @MetaData("库存变动明细记录")
 @Entity
 @Table(name = "biz_stock_in_out")
 @Cache(usage = CacheConcurrencyStrategy.NONE)
-public class StockInOut extends BaseNativeEntity {
+@MonthlyPartition(dateProperty = "createdDate")
+@EntityListeners(MonthlyPartitionListener.class)
+public class StockInOut extends BasePooledEntity {
 
     @MetaData("单据凭证号")
     private String voucher;
@@ -71,6 +79,8 @@ public class StockInOut extends BaseNativeEntity {
     private String operationSummary;
     @MetaData(value = "标识已红冲")
     private Boolean redword;
+    @MetaData(value = "分区月份", comments = "基于创建时间自动计算的yyyyMM格式年月")
+    private Integer partitionMonth;
 
     public StockInOut() {
         super();
@@ -91,6 +101,7 @@ public class StockInOut extends BaseNativeEntity {
         this.originalStockAmount = commodityStock.getCurStockAmount();
     }
 
+    @Index(name = "idx_biz_stock_in_out_voucher")
     @JsonProperty
     public String getVoucher() {
         return voucher;
@@ -273,4 +284,16 @@ public class StockInOut extends BaseNativeEntity {
     public void setRedword(Boolean redword) {
         this.redword = redword;
     }
+
+    @Column(name = "partition_month")
+    @Index(name = "idx_biz_stock_in_out_pm")
+    @JsonIgnore
+    public Integer getPartitionMonth() {
+        return partitionMonth;
+    }
+
+    @SkipParamBind
+    public void setPartitionMonth(Integer partitionMonth) {
+        this.partitionMonth = partitionMonth;
+    }
 }
\ No newline at end of file
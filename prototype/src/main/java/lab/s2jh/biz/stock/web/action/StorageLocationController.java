@@ -63,6 +63,11 @@ public class StorageLocationController extends BaseController<StorageLocation,St
         return super.findByPage();
     }
     
+    @Override
+    protected String[] getSelectOptionDisplayProperties() {
+        return new String[] { "code", "title" };
+    }
+
     @Override
     @MetaData(value = "下拉框选项数据")
     public HttpHeaders selectOptions() {